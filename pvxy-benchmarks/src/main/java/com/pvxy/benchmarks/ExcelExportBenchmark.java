@@ -0,0 +1,60 @@
+package com.pvxy.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PoiExcelUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导出到丢弃输出的响应流，每次调用前重新生成工作簿，只测量 export 本身
+ * 行数较大时单次耗时在秒级，使用单次执行模式
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExcelExportBenchmark {
+
+    private static final Object[] TITLES = {"序号", "姓名", "手机号", "机构", "金额", "状态", "创建时间", "备注"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private PoiExcelUtil excel;
+
+    private NullResponse.NullOutputStream out;
+
+    @Setup(Level.Invocation)
+    public void build() {
+        excel = PoiExcelUtil.newStreamingExcel(1000);
+        excel.title(TITLES).nextRow();
+        LocalDateTime time = LocalDateTime.of(2020, 1, 1, 8, 0);
+        BigDecimal amount = new BigDecimal("1234.56");
+        for (int i = 0; i < rows; i++) {
+            excel.write(i, "用户" + (i % 1000), 13800000000L + i, "机构" + (i % 50), amount, i % 3 == 0 ? "正常" : "停用",
+                    time, null).nextRow();
+        }
+        out = new NullResponse.NullOutputStream();
+    }
+
+    @Benchmark
+    public long export() {
+        excel.export("benchmark", NullResponse.create(out));
+        return out.getBytes();
+    }
+}
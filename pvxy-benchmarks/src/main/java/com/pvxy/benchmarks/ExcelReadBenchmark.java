@@ -0,0 +1,96 @@
+package com.pvxy.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PoiExcelUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单元格读取：read 走 getValue，readDate 走 getDateValue
+ * 先导出一个文件再加载，单元格与线上上传的文件一致（共享字符串、日期格式）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcelReadBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private static final int STRING = 0;
+
+    private static final int INTEGER = 1;
+
+    private static final int DECIMAL = 2;
+
+    private static final int DATE = 3;
+
+    private PoiExcelUtil excel;
+
+    private int row;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        File dir = Files.createTempDirectory("pvxy-benchmark-").toFile();
+        PoiExcelUtil writer = PoiExcelUtil.newExcel();
+        Date date = Timestamp.valueOf(LocalDateTime.of(2020, 1, 1, 8, 30));
+        for (int i = 0; i < ROWS; i++) {
+            writer.write("用户" + i, 13800000000L + i, 1234.5 + i, date).nextRow();
+        }
+        File file = writer.export(new File(dir, "read").getPath());
+        try {
+            excel = PoiExcelUtil.loadFile(file);
+        } finally {
+            file.delete();
+            dir.delete();
+        }
+    }
+
+    private int next() {
+        row = (row + 1) & (ROWS - 1);
+        return row;
+    }
+
+    @Benchmark
+    public String readString() {
+        return excel.read(next(), STRING);
+    }
+
+    @Benchmark
+    public String readInteger() {
+        return excel.read(next(), INTEGER);
+    }
+
+    @Benchmark
+    public String readDecimal() {
+        return excel.read(next(), DECIMAL);
+    }
+
+    @Benchmark
+    public String readDate() {
+        return excel.readDate(next(), DATE);
+    }
+
+    @Benchmark
+    public String readDateDecimal() {
+        return excel.readDate(next(), DECIMAL);
+    }
+}
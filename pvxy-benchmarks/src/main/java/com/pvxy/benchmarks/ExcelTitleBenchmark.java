@@ -0,0 +1,65 @@
+package com.pvxy.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PoiExcelUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 标题行与列宽：title、setWidth
+ * 空白工作簿和流式工作簿分别测量
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcelTitleBenchmark {
+
+    private static final Object[] TITLES = {"序号", "姓名", "手机号", "机构", "金额", "状态", "创建时间", "备注"};
+
+    private static final int[] WIDTHS = {8, 12, 15, 20, 12, 8, 20, 30};
+
+    @Param({"blank", "streaming"})
+    public String workbook;
+
+    private PoiExcelUtil excel;
+
+    @Setup(Level.Iteration)
+    public void open() {
+        excel = "streaming".equals(workbook) ? PoiExcelUtil.newStreamingExcel(100) : PoiExcelUtil.newExcel();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        excel.export("benchmark", NullResponse.create(new NullResponse.NullOutputStream()));
+    }
+
+    @Benchmark
+    public PoiExcelUtil title() {
+        return excel.title(TITLES);
+    }
+
+    @Benchmark
+    public PoiExcelUtil setWidth() {
+        return excel.setWidth(WIDTHS);
+    }
+
+    @Benchmark
+    public PoiExcelUtil setWidthIndex() {
+        return excel.setWidth(3, 20);
+    }
+}
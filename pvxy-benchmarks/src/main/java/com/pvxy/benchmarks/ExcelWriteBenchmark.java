@@ -0,0 +1,100 @@
+package com.pvxy.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PoiExcelUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单元格写入，按值类型分别测量
+ * 写入使用流式工作簿，避免迭代过程中堆内存随行数增长影响结果
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcelWriteBenchmark {
+
+    @Param({"String", "Integer", "Long", "Double", "BigDecimal", "Boolean", "Date", "LocalDate", "LocalDateTime"})
+    public String type;
+
+    private Object value;
+
+    private PoiExcelUtil excel;
+
+    @Setup(Level.Trial)
+    public void value() {
+        switch (type) {
+            case "String":
+                value = "广州市天河区体育西路";
+                break;
+            case "Integer":
+                value = 123456;
+                break;
+            case "Long":
+                value = 13800138000L;
+                break;
+            case "Double":
+                value = 12345.678;
+                break;
+            case "BigDecimal":
+                value = new BigDecimal("12345.67");
+                break;
+            case "Boolean":
+                value = Boolean.TRUE;
+                break;
+            case "Date":
+                value = new Date();
+                break;
+            case "LocalDate":
+                value = LocalDate.now();
+                break;
+            case "LocalDateTime":
+                value = LocalDateTime.now();
+                break;
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void open() {
+        excel = PoiExcelUtil.newStreamingExcel(100);
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        excel.export("benchmark", NullResponse.create(new NullResponse.NullOutputStream()));
+    }
+
+    /**
+     * 一行写8列同类型的值
+     */
+    @Benchmark
+    public PoiExcelUtil write() {
+        return excel.write(value, value, value, value, value, value, value, value).nextRow();
+    }
+
+    @Benchmark
+    public PoiExcelUtil writeCell() {
+        return excel.write(0, value).nextRow();
+    }
+}
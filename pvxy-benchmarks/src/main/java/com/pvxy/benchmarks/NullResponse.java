@@ -0,0 +1,60 @@
+package com.pvxy.benchmarks;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Proxy;
+
+/**
+ * 丢弃全部输出的响应，只统计写入的字节数，用于测量导出本身的耗时
+ */
+final class NullResponse {
+
+    private NullResponse() {
+    }
+
+    static HttpServletResponse create(NullOutputStream out) {
+        return (HttpServletResponse) Proxy.newProxyInstance(NullResponse.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    if ("getOutputStream".equals(method.getName())) {
+                        return out;
+                    }
+                    Class<?> type = method.getReturnType();
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    if (type == int.class) {
+                        return 0;
+                    }
+                    return null;
+                });
+    }
+
+    static final class NullOutputStream extends ServletOutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+    }
+}
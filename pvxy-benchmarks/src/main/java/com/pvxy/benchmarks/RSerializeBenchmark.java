@@ -0,0 +1,125 @@
+package com.pvxy.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vo.R;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * R 的 Jackson 序列化，分别测量常量响应、没有 extra 和带 extra 的响应
+ * serializer=bean 时通过 mix-in 去掉 {@link vo.RSerializer}，回到按getter反射序列化，作为对照；
+ * 开始前校验两种方式输出的JSON完全一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RSerializeBenchmark {
+
+    @Param({"RSerializer", "bean"})
+    public String serializer;
+
+    private ObjectMapper mapper;
+
+    private R<Boolean> success;
+
+    private R<Object> timeout;
+
+    private R<Map<String, Object>> plain;
+
+    private R<Map<String, Object>> withExtra;
+
+    private R<List<Map<String, Object>>> list;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        mapper = new ObjectMapper();
+        if ("bean".equals(serializer)) {
+            mapper.addMixIn(R.class, BeanMixin.class);
+        }
+        success = R.success();
+        timeout = R.timeout();
+        plain = R.success(user(1));
+        withExtra = R.success(user(1)).put("total", 100).put("page", 1).put("tips", "数据已更新");
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(user(i));
+        }
+        list = R.success(users);
+        verify();
+    }
+
+    /**
+     * 与反射序列化的输出逐字节比较
+     */
+    private void verify() throws JsonProcessingException {
+        ObjectMapper bean = new ObjectMapper().addMixIn(R.class, BeanMixin.class);
+        for (Object value : new Object[]{success, timeout, plain, withExtra, list, R.success(null).put("a", 1)}) {
+            byte[] expected = bean.writeValueAsBytes(value);
+            byte[] actual = mapper.writeValueAsBytes(value);
+            if (!Arrays.equals(expected, actual)) {
+                throw new IllegalStateException("序列化结果不一致: " + new String(expected) + " / " + new String(actual));
+            }
+        }
+    }
+
+    private static Map<String, Object> user(int id) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", id);
+        user.put("name", "用户" + id);
+        user.put("mobile", "1380013800" + id % 10);
+        user.put("amount", 1234.56);
+        user.put("enabled", true);
+        return user;
+    }
+
+    @Benchmark
+    public byte[] success() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(success);
+    }
+
+    @Benchmark
+    public byte[] timeout() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(timeout);
+    }
+
+    @Benchmark
+    public byte[] plain() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(plain);
+    }
+
+    @Benchmark
+    public byte[] withExtra() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(withExtra);
+    }
+
+    @Benchmark
+    public byte[] list() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(list);
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class BeanMixin {
+    }
+}
@@ -0,0 +1,35 @@
+package com.pvxy.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PoiExcelUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PoiExcelUtil.removeZero
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoveZeroBenchmark {
+
+    @Param({"12345", "1234.5600", "100.000000", "0.1000000000000000055511151231257827"})
+    public String value;
+
+    @Benchmark
+    public String removeZero() {
+        return PoiExcelUtil.removeZero(value);
+    }
+}
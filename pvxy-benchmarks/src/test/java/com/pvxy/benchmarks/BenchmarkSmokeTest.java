@@ -0,0 +1,97 @@
+package com.pvxy.benchmarks;
+
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 不经过JMH，直接按 @Param 取值执行 @Setup、每个 @Benchmark 方法一次和 @TearDown，
+ * 保证基准代码本身可运行，返回值不为null
+ */
+public class BenchmarkSmokeTest {
+
+    @Test
+    public void excelWrite() throws Exception {
+        run(ExcelWriteBenchmark.class);
+    }
+
+    @Test
+    public void excelRead() throws Exception {
+        run(ExcelReadBenchmark.class);
+    }
+
+    @Test
+    public void excelTitle() throws Exception {
+        run(ExcelTitleBenchmark.class);
+    }
+
+    @Test
+    public void excelExport() throws Exception {
+        // 只取最小规模
+        run(ExcelExportBenchmark.class, "10000");
+    }
+
+    @Test
+    public void removeZero() throws Exception {
+        run(RemoveZeroBenchmark.class);
+    }
+
+    @Test
+    public void rSerialize() throws Exception {
+        run(RSerializeBenchmark.class);
+    }
+
+    /**
+     * @param values 覆盖 @Param 的取值，为空时使用注解中的全部取值
+     */
+    private static void run(Class<?> type, String... values) throws Exception {
+        Field param = null;
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Param.class)) {
+                param = field;
+                param.setAccessible(true);
+                if (values.length == 0) {
+                    values = field.getAnnotation(Param.class).value();
+                }
+            }
+        }
+        List<Method> setups = new ArrayList<>();
+        List<Method> benchmarks = new ArrayList<>();
+        List<Method> tearDowns = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Setup.class)) {
+                setups.add(method);
+            } else if (method.isAnnotationPresent(Benchmark.class)) {
+                benchmarks.add(method);
+            } else if (method.isAnnotationPresent(TearDown.class)) {
+                tearDowns.add(method);
+            }
+        }
+        assertTrue(type.getSimpleName(), !benchmarks.isEmpty());
+        for (String value : param == null ? new String[]{null} : values) {
+            for (Method benchmark : benchmarks) {
+                Object instance = type.newInstance();
+                if (param != null) {
+                    param.set(instance, param.getType() == int.class ? Integer.valueOf(value) : value);
+                }
+                for (Method setup : setups) {
+                    setup.invoke(instance);
+                }
+                assertNotNull(type.getSimpleName() + "." + benchmark.getName() + "(" + value + ")", benchmark.invoke(instance));
+                for (Method tearDown : tearDowns) {
+                    tearDown.invoke(instance);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package util;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.Arrays;
+
+/**
+ * 单元格样式注册表
+ * 按 (基础样式, 水平对齐, 自动换行, 数据格式, 字体) 组合复用样式，每种组合只创建一次，
+ * 避免逐个单元格修改共享的默认样式，也避免样式数量超过Excel上限；
+ * 创建样式会修改工作簿的样式表，查找和创建都在注册表上加锁，多个sheet可以并行写入
+ */
+public class CellStyleRegistry {
+
+    private final Workbook workbook;
+
+    private final int maxStyles;
+
+    /**
+     * 开放寻址表：key为组合编码，value为样式
+     */
+    private long[] keys = new long[64];
+
+    private CellStyle[] values = new CellStyle[64];
+
+    private int size;
+
+    /**
+     * 注册表创建的样式下标 -> 其基础样式下标，避免对已派生的样式再次派生
+     */
+    private int[] baseOf = new int[0];
+
+    public CellStyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+        this.maxStyles = SpreadsheetVersion.EXCEL2007.getMaxCellStyles();
+    }
+
+    /**
+     * 在基础样式上设置对齐和换行，保留基础样式的数据格式和字体
+     */
+    public CellStyle get(CellStyle base, HorizontalAlignment alignment, boolean wrap) {
+        return get(base, alignment, wrap, base.getDataFormat(), base.getFontIndexAsInt());
+    }
+
+    /**
+     * 在基础样式上设置对齐、换行、数据格式
+     */
+    public CellStyle get(CellStyle base, HorizontalAlignment alignment, boolean wrap, short dataFormat) {
+        return get(base, alignment, wrap, dataFormat, base.getFontIndexAsInt());
+    }
+
+    /**
+     * 获取组合对应的样式，不存在时创建
+     *
+     * @param base       基础样式（边框、填充等沿用该样式）
+     * @param alignment  水平对齐
+     * @param wrap       自动换行
+     * @param dataFormat 数据格式下标
+     * @param fontIndex  字体下标
+     */
+    public synchronized CellStyle get(CellStyle base, HorizontalAlignment alignment, boolean wrap, short dataFormat, int fontIndex) {
+        int baseIndex = rootOf(base.getIndex() & 0xFFFF);
+        long key = key(baseIndex, alignment, wrap, dataFormat, fontIndex);
+        int slot = slot(key);
+        CellStyle style = values[slot];
+        if (style != null) {
+            return style;
+        }
+        style = create(baseIndex, alignment, wrap, dataFormat, fontIndex);
+        put(key, style);
+        return style;
+    }
+
+    /**
+     * 已创建的样式数量
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private CellStyle create(int baseIndex, HorizontalAlignment alignment, boolean wrap, short dataFormat, int fontIndex) {
+        if (workbook.getNumCellStyles() >= maxStyles) {
+            throw new IllegalStateException("单元格样式数量超过上限：" + maxStyles);
+        }
+        CellStyle style = workbook.createCellStyle();
+        if (baseIndex != 0) {
+            style.cloneStyleFrom(workbook.getCellStyleAt(baseIndex));
+        }
+        style.setAlignment(alignment);
+        style.setWrapText(wrap);
+        style.setDataFormat(dataFormat);
+        style.setFont(workbook.getFontAt(fontIndex));
+
+        int index = style.getIndex() & 0xFFFF;
+        if (index >= baseOf.length) {
+            int from = baseOf.length;
+            baseOf = Arrays.copyOf(baseOf, Math.max(index + 1, baseOf.length * 2));
+            Arrays.fill(baseOf, from, baseOf.length, -1);
+        }
+        baseOf[index] = baseIndex;
+        return style;
+    }
+
+    private int rootOf(int index) {
+        if (index < baseOf.length && baseOf[index] >= 0) {
+            return baseOf[index];
+        }
+        return index;
+    }
+
+    private static long key(int baseIndex, HorizontalAlignment alignment, boolean wrap, short dataFormat, int fontIndex) {
+        if (fontIndex < 0 || fontIndex > 0xFFFF) {
+            throw new IllegalArgumentException("字体下标越界：" + fontIndex);
+        }
+        return ((long) baseIndex << 37)
+                | ((long) (dataFormat & 0xFFFF) << 21)
+                | ((long) fontIndex << 5)
+                | ((long) alignment.ordinal() << 1)
+                | (wrap ? 1L : 0L);
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int i = (int) (mix(key) & mask);
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void put(long key, CellStyle style) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash();
+        }
+        int i = slot(key);
+        keys[i] = key;
+        values[i] = style;
+        size++;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        CellStyle[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new CellStyle[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
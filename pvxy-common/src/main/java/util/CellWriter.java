@@ -0,0 +1,18 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * 单元格写入器，按值类型注册到 {@link CellWriters}
+ */
+@FunctionalInterface
+public interface CellWriter<T> {
+
+    /**
+     * 将值写入单元格
+     *
+     * @param cell  目标单元格
+     * @param value 非空的值
+     */
+    void write(Cell cell, T value);
+}
@@ -0,0 +1,132 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按值类型分派的单元格写入器注册表
+ * 通过 ClassValue 缓存每个类型解析到的写入器，写入时只需一次查表，不再逐个 instanceof 判断；
+ * 自定义类型可调用 {@link #register(Class, CellWriter)} 注册
+ */
+public final class CellWriters {
+
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 数值单元格格式（常规），单元格存的是原始数值；
+     * 显示时不带多余的0，但超过11位有效数字或很小的数会显示为科学计数法，需要固定显示时注册带格式的写入器
+     */
+    public static final String NUMBER_FORMAT = "General";
+
+    public static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    /**
+     * 未注册类型的占位，ClassValue 不能缓存null
+     */
+    private static final Entry UNKNOWN = new Entry(null, null);
+
+    private static final Map<Class<?>, Entry> REGISTERED = new ConcurrentHashMap<>();
+
+    private static volatile ClassValue<Entry> cache = newCache();
+
+    static {
+        register(String.class, (cell, value) -> cell.setCellValue(value));
+        register(Integer.class, (cell, value) -> cell.setCellValue(value));
+        register(Long.class, (cell, value) -> cell.setCellValue(value));
+        register(Short.class, (cell, value) -> cell.setCellValue(value));
+        register(Byte.class, (cell, value) -> cell.setCellValue(value));
+        register(Double.class, NUMBER_FORMAT, (cell, value) -> cell.setCellValue(value));
+        register(Float.class, NUMBER_FORMAT, (cell, value) -> cell.setCellValue(Float.isFinite(value) ? PoiExcelUtil.getDouble(value, 2) : value));
+        register(BigDecimal.class, NUMBER_FORMAT, (cell, value) -> cell.setCellValue(value.doubleValue()));
+        register(Number.class, NUMBER_FORMAT, (cell, value) -> cell.setCellValue(value.doubleValue()));
+        register(Boolean.class, (cell, value) -> cell.setCellValue(value));
+        register(Character.class, (cell, value) -> cell.setCellValue(String.valueOf(value.charValue())));
+        register(CharSequence.class, (cell, value) -> cell.setCellValue(value.toString()));
+        register(Date.class, DATE_TIME_FORMAT, (cell, value) -> cell.setCellValue(value));
+        register(LocalDate.class, (cell, value) -> cell.setCellValue(value.format(DATE_FORMATTER)));
+        register(LocalDateTime.class, (cell, value) -> cell.setCellValue(value.format(DATE_TIME_FORMATTER)));
+    }
+
+    private CellWriters() {
+    }
+
+    /**
+     * 注册类型的写入器，子类未单独注册时沿用父类/接口的写入器
+     */
+    public static <T> void register(Class<T> type, CellWriter<? super T> writer) {
+        register(type, null, writer);
+    }
+
+    /**
+     * 注册类型的写入器，并指定单元格数据格式
+     *
+     * @param format Excel数据格式，如 "0.00"，null表示沿用单元格原有格式
+     */
+    public static <T> void register(Class<T> type, String format, CellWriter<? super T> writer) {
+        REGISTERED.put(type, new Entry(writer, format));
+        // 已缓存的子类解析结果可能失效，整体重建
+        cache = newCache();
+    }
+
+    /**
+     * 查找类型的写入器，未注册的类型返回null
+     */
+    static Entry lookup(Class<?> type) {
+        Entry entry = cache.get(type);
+        return entry == UNKNOWN ? null : entry;
+    }
+
+    private static ClassValue<Entry> newCache() {
+        return new ClassValue<Entry>() {
+            @Override
+            protected Entry computeValue(Class<?> type) {
+                Entry entry = resolve(type);
+                return entry != null ? entry : UNKNOWN;
+            }
+        };
+    }
+
+    private static Entry resolve(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            Entry entry = REGISTERED.get(c);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> i : c.getInterfaces()) {
+                Entry entry = resolve(i);
+                if (entry != null) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    static final class Entry {
+
+        private final CellWriter<Object> writer;
+
+        final String format;
+
+        @SuppressWarnings("unchecked")
+        private Entry(CellWriter<?> writer, String format) {
+            this.writer = (CellWriter<Object>) writer;
+            this.format = format;
+        }
+
+        void write(Cell cell, Object value) {
+            writer.write(cell, value);
+        }
+    }
+}
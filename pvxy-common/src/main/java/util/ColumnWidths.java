@@ -0,0 +1,128 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * 列宽估算
+ * 写入时按显示宽度记录每列最大值（中日韩等全角字符计2），每列只占一个int，
+ * 导出时一次性 setColumnWidth，不依赖字体度量，流式写入同样可用
+ */
+class ColumnWidths {
+
+    /**
+     * 自动列宽上限（字符数），超过的内容依靠自动换行
+     */
+    static final int MAX_WIDTH = 60;
+
+    /**
+     * 内容两侧留白
+     */
+    private static final int PADDING = 2;
+
+    private static final int PINNED = -1;
+
+    private int[] widths = new int[16];
+
+    /**
+     * 记录单元格内容宽度
+     *
+     * @param format 数据格式，日期等按格式长度估算
+     */
+    void record(int column, Object value, String format) {
+        int current = ensure(column);
+        if (current == PINNED || current >= MAX_WIDTH) {
+            return;
+        }
+        int width = width(value, format);
+        if (width > current) {
+            widths[column] = Math.min(width, MAX_WIDTH);
+        }
+    }
+
+    /**
+     * 显式设置过宽度的列不再自动调整
+     */
+    void pin(int column) {
+        ensure(column);
+        widths[column] = PINNED;
+    }
+
+    /**
+     * 按记录的最大宽度设置列宽，完成后清空
+     */
+    void apply(Sheet sheet) {
+        for (int column = 0; column < widths.length; column++) {
+            if (widths[column] > 0) {
+                sheet.setColumnWidth(column, Math.min(widths[column] + PADDING, MAX_WIDTH) * 256);
+            }
+        }
+        widths = new int[16];
+    }
+
+    private int ensure(int column) {
+        if (column >= widths.length) {
+            widths = Arrays.copyOf(widths, Math.max(column + 1, widths.length * 2));
+        }
+        return widths[column];
+    }
+
+    private static int width(Object value, String format) {
+        if (value instanceof String) {
+            return width((String) value);
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return digits(((Number) value).longValue());
+        }
+        if (value instanceof Date || value instanceof TemporalAccessor) {
+            return format != null ? format.length() : CellWriters.DATE_TIME_FORMAT.length();
+        }
+        return width(String.valueOf(value));
+    }
+
+    /**
+     * 多行文本取最长一行；超过上限即停止扫描
+     */
+    static int width(String s) {
+        int max = 0;
+        int line = 0;
+        for (int i = 0, length = s.length(); i < length && max < MAX_WIDTH; i++) {
+            char c = s.charAt(i);
+            if (c == '\n') {
+                line = 0;
+                continue;
+            }
+            line += isWide(c) ? 2 : 1;
+            if (line > max) {
+                max = line;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 东亚全角字符：CJK统一汉字、假名、韩文、全角符号等
+     */
+    private static boolean isWide(char c) {
+        return (c >= '\u1100' && c <= '\u115F')
+                || (c >= '\u2E80' && c <= '\uA4CF')
+                || (c >= '\uAC00' && c <= '\uD7A3')
+                || (c >= '\uF900' && c <= '\uFAFF')
+                || (c >= '\uFE30' && c <= '\uFE4F')
+                || (c >= '\uFF00' && c <= '\uFF60')
+                || (c >= '\uFFE0' && c <= '\uFFE6');
+    }
+
+    private static int digits(long v) {
+        int n = v < 0 ? 2 : 1;
+        v = Math.abs(v / 10);
+        while (v != 0) {
+            v /= 10;
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,338 @@
+package util;
+
+import cn.hutool.core.util.URLUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * CSV/TSV 写入，接口与 {@link PoiExcelUtil} 一致，适合给程序消费的大数据量导出
+ * 行只能顺序写入：当前行之前的行已编码输出，不能回写；
+ * 内容直接编码为UTF-8写入可复用的缓冲区，满后通过 FileChannel 写入临时文件；
+ * 导出到本地时直接移动临时文件，输出到响应时按 transferTo 分段写出；
+ * 不导出时调用 {@link #close()} 删除临时文件
+ */
+@Slf4j
+public class CsvWriter implements SheetWriter, Closeable {
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final char delimiter;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private final Path tmp;
+
+    private final FileChannel channel;
+
+    private int currentRowNum = 0;
+
+    /**
+     * 缓冲中尚未编码的行号及其单元格
+     */
+    private int pendingRow = 0;
+
+    private Object[] cells = new Object[16];
+
+    private int cellCount = 0;
+
+    private boolean finished;
+
+    CsvWriter(char delimiter) {
+        this.delimiter = delimiter;
+        try {
+            this.tmp = Files.createTempFile("pvxy-csv-", ".tmp");
+            this.channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("创建临时文件失败", e);
+        }
+        buffer.put(UTF8_BOM);
+    }
+
+    @Override
+    public int getCurrentRowNum() {
+        return currentRowNum;
+    }
+
+    @Override
+    public CsvWriter write(int cellnum, Object object) {
+        return write(currentRowNum, cellnum, object);
+    }
+
+    @Override
+    public CsvWriter write(Object... objects) {
+        for (int i = 0; i < objects.length; i++) {
+            write(currentRowNum, i, objects[i]);
+        }
+        return this;
+    }
+
+    @Override
+    public CsvWriter write(int rownum, int cellnum, Object object) {
+        if (object == null) {
+            return this;
+        }
+        moveTo(rownum);
+        if (cellnum >= cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(cellnum + 1, cells.length * 2));
+        }
+        cells[cellnum] = object;
+        if (cellnum >= cellCount) {
+            cellCount = cellnum + 1;
+        }
+        return this;
+    }
+
+    @Override
+    public CsvWriter title(Object... objects) {
+        for (int i = 0; i < objects.length; i++) {
+            write(0, i, objects[i]);
+        }
+        return this;
+    }
+
+    @Override
+    public CsvWriter nextRow() {
+        this.currentRowNum++;
+        return this;
+    }
+
+    @Override
+    public CsvWriter nextRow(int num) {
+        this.currentRowNum += num;
+        return this;
+    }
+
+    @Override
+    public HttpServletResponse export(String fileName, HttpServletResponse response) {
+        response.setContentType(contentType());
+        response.setHeader("Content-Disposition", "attachment;filename=" + URLUtil.encode(fileName) + extension());
+        try {
+            finish();
+            long size = channel.size();
+            response.setContentLengthLong(size);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < size; ) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            dispose();
+        }
+        return response;
+    }
+
+    @Override
+    public File export(String filePath) {
+        File file = new File(filePath + extension());
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            finish();
+            channel.close();
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            dispose();
+        }
+        return file;
+    }
+
+    private void moveTo(int rownum) {
+        if (finished) {
+            throw new IllegalStateException("已导出，不能继续写入");
+        }
+        if (rownum < pendingRow) {
+            throw new IllegalStateException("CSV只能顺序写入，第" + rownum + "行已输出");
+        }
+        if (rownum == pendingRow) {
+            return;
+        }
+        try {
+            encodePending();
+            for (int i = pendingRow + 1; i < rownum; i++) {
+                putByte((byte) '\n');
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("写入CSV失败", e);
+        }
+        pendingRow = rownum;
+    }
+
+    private void finish() throws IOException {
+        if (!finished) {
+            encodePending();
+            finished = true;
+            drain();
+        }
+    }
+
+    private void encodePending() throws IOException {
+        for (int i = 0; i < cellCount; i++) {
+            if (i > 0) {
+                putByte((byte) delimiter);
+            }
+            Object value = cells[i];
+            if (value != null) {
+                putField(format(value));
+                cells[i] = null;
+            }
+        }
+        putByte((byte) '\n');
+        cellCount = 0;
+    }
+
+    /**
+     * 数值去掉小数点后多余的0，且不使用科学计数法（1.0E10 输出为 10000000000）
+     */
+    static CharSequence format(Object value) {
+        if (value instanceof CharSequence) {
+            return (CharSequence) value;
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return Long.toString(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            return plain((Double) value);
+        } else if (value instanceof Float) {
+            float f = (Float) value;
+            return plain(Float.isFinite(f) ? PoiExcelUtil.getDouble(f, 2) : f);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            return decimal.signum() == 0 ? "0" : decimal.stripTrailingZeros().toPlainString();
+        } else if (value instanceof BigInteger) {
+            return value.toString();
+        } else if (value instanceof Number) {
+            return plain(((Number) value).doubleValue());
+        } else if (value instanceof Date) {
+            return ((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().format(CellWriters.DATE_TIME_FORMATTER);
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).format(CellWriters.DATE_FORMATTER);
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).format(CellWriters.DATE_TIME_FORMATTER);
+        } else if (value instanceof Boolean || value instanceof Character) {
+            return value.toString();
+        }
+        log.error("未知的数据类型！{}", value.getClass().getName());
+        return "";
+    }
+
+    private static String plain(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return String.valueOf(value);
+        }
+        if (value == 0) {
+            return "0";
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private void putField(CharSequence value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (quote) {
+            putByte((byte) '"');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' && quote) {
+                putByte((byte) '"');
+            }
+            if (c < 0x80) {
+                putByte((byte) c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                putByte((byte) '?');
+            } else {
+                ensure(3);
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        if (quote) {
+            putByte((byte) '"');
+        }
+    }
+
+    private void putByte(byte b) throws IOException {
+        ensure(1);
+        buffer.put(b);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 放弃导出，关闭通道并删除临时文件；已导出时不做任何事，可重复调用
+     */
+    @Override
+    public void close() {
+        finished = true;
+        dispose();
+    }
+
+    private void dispose() {
+        try {
+            channel.close();
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private String extension() {
+        return delimiter == '\t' ? ".tsv" : ".csv";
+    }
+
+    private String contentType() {
+        return delimiter == '\t' ? "text/tab-separated-values;charset=UTF-8" : "text/csv;charset=UTF-8";
+    }
+}
@@ -0,0 +1,365 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link ExcelColumn} 标注的bean的列信息，每个类只解析一次
+ * 导出取值使用预先生成的 Function（LambdaMetafactory），无法生成时退化为 MethodHandle；
+ * 导入按字段类型选择 {@link ExcelCells} 转换器，通过 MethodHandle 赋值，逐行处理时没有反射开销
+ */
+final class ExcelBeanMeta {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<ExcelBeanMeta> CACHE = new ClassValue<ExcelBeanMeta>() {
+        @Override
+        protected ExcelBeanMeta computeValue(Class<?> type) {
+            return new ExcelBeanMeta(type);
+        }
+    };
+
+    /**
+     * 导入时按字段类型选择的单元格转换器
+     */
+    private static final Map<Class<?>, Function<Cell, Object>> CONVERTERS = new HashMap<>();
+
+    /**
+     * 流式读取（{@link RowView}）时按字段类型选择的转换器，数值单元格直接使用原始数值
+     */
+    private static final Map<Class<?>, ViewConverter> VIEW_CONVERTERS = new HashMap<>();
+
+    static {
+        CONVERTERS.put(String.class, ExcelCells::toString);
+        CONVERTERS.put(int.class, ExcelCells::toInteger);
+        CONVERTERS.put(Integer.class, ExcelCells::toInteger);
+        CONVERTERS.put(long.class, ExcelCells::toLong);
+        CONVERTERS.put(Long.class, ExcelCells::toLong);
+        CONVERTERS.put(double.class, ExcelCells::toDouble);
+        CONVERTERS.put(Double.class, ExcelCells::toDouble);
+        CONVERTERS.put(boolean.class, ExcelCells::toBoolean);
+        CONVERTERS.put(Boolean.class, ExcelCells::toBoolean);
+        CONVERTERS.put(BigDecimal.class, ExcelCells::toDecimal);
+        CONVERTERS.put(LocalDate.class, ExcelCells::toLocalDate);
+        CONVERTERS.put(LocalDateTime.class, ExcelCells::toLocalDateTime);
+        CONVERTERS.put(Date.class, ExcelCells::toDate);
+
+        VIEW_CONVERTERS.put(String.class, ExcelBeanMeta::readText);
+        VIEW_CONVERTERS.put(int.class, RowView::readInteger);
+        VIEW_CONVERTERS.put(Integer.class, RowView::readInteger);
+        VIEW_CONVERTERS.put(long.class, RowView::readLong);
+        VIEW_CONVERTERS.put(Long.class, RowView::readLong);
+        VIEW_CONVERTERS.put(double.class, RowView::readDouble);
+        VIEW_CONVERTERS.put(Double.class, RowView::readDouble);
+        VIEW_CONVERTERS.put(boolean.class, RowView::readBoolean);
+        VIEW_CONVERTERS.put(Boolean.class, RowView::readBoolean);
+        VIEW_CONVERTERS.put(BigDecimal.class, RowView::readDecimal);
+        VIEW_CONVERTERS.put(LocalDate.class, RowView::readLocalDate);
+        VIEW_CONVERTERS.put(LocalDateTime.class, RowView::readLocalDateTime);
+        VIEW_CONVERTERS.put(Date.class, (row, cellnum) -> {
+            LocalDateTime value = row.readLocalDateTime(cellnum);
+            return value == null ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+        });
+    }
+
+    private final Class<?> type;
+
+    private final Column[] columns;
+
+    /**
+     * 导入用的构造器，首次导入时才解析，只用于导出的类不要求有无参构造
+     */
+    private volatile MethodHandle constructor;
+
+    private ExcelBeanMeta(Class<?> type) {
+        this.type = type;
+        List<Column> list = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                ExcelColumn annotation = field.getAnnotation(ExcelColumn.class);
+                if (annotation == null || Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                list.add(new Column(field, annotation, getter(type, field)));
+            }
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException(type.getName() + " 没有 @ExcelColumn 标注的字段");
+        }
+        list.sort(Comparator.comparingInt(column -> column.index));
+        for (int i = 0; i < list.size(); i++) {
+            Column column = list.get(i);
+            if (column.index < 0) {
+                throw new IllegalArgumentException(type.getName() + " 的 @ExcelColumn 列号不能为负数：" + column.field.getName());
+            }
+            if (i > 0 && list.get(i - 1).index == column.index) {
+                throw new IllegalArgumentException(type.getName() + " 的 @ExcelColumn 列号重复：" + column.index
+                        + "（" + list.get(i - 1).field.getName() + "、" + column.field.getName() + "）");
+            }
+        }
+        this.columns = list.toArray(new Column[0]);
+    }
+
+    static ExcelBeanMeta of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    Column[] columns() {
+        return columns;
+    }
+
+    /**
+     * 将一行转换为bean，所有列都为空时返回null
+     */
+    Object read(Row row) {
+        Object bean = null;
+        for (Column column : columns) {
+            Cell cell = row.getCell(column.index);
+            Object value;
+            try {
+                value = column.converter().apply(cell);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("第" + (row.getRowNum() + 1) + "行第" + (column.index + 1)
+                        + "列[" + column.title + "]数据格式错误：" + e.getMessage(), e);
+            }
+            if (value == null) {
+                continue;
+            }
+            if (bean == null) {
+                bean = newInstance();
+            }
+            column.set(bean, value);
+        }
+        return bean;
+    }
+
+    /**
+     * 将流式读取的一行转换为bean，与 {@link #read(Row)} 的转换规则一致，所有列都为空时返回null
+     */
+    Object read(RowView row) {
+        Object bean = null;
+        for (Column column : columns) {
+            Object value;
+            try {
+                value = column.viewConverter().apply(row, column.index);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("第" + (row.getRowNum() + 1) + "行第" + (column.index + 1)
+                        + "列[" + column.title + "]数据格式错误：" + e.getMessage(), e);
+            }
+            if (value == null) {
+                continue;
+            }
+            if (bean == null) {
+                bean = newInstance();
+            }
+            column.set(bean, value);
+        }
+        return bean;
+    }
+
+    /**
+     * 数值单元格与 {@link PoiExcelUtil#getValue} 一致取整，其余取显示文本
+     */
+    private static Object readText(RowView row, int cellnum) {
+        if (row.isNumeric(cellnum)) {
+            return ExcelCells.formatInteger(row.getNumber(cellnum));
+        }
+        return row.read(cellnum);
+    }
+
+    private Object newInstance() {
+        MethodHandle handle = constructor;
+        if (handle == null) {
+            try {
+                Constructor<?> c = type.getDeclaredConstructor();
+                c.setAccessible(true);
+                handle = LOOKUP.unreflectConstructor(c).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalStateException(type.getName() + " 缺少无参构造方法", e);
+            }
+            constructor = handle;
+        }
+        try {
+            return (Object) handle.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("创建对象失败：" + type.getName(), e);
+        }
+    }
+
+    private static Function<Object, Object> getter(Class<?> type, Field field) {
+        Method method = findGetter(type, field);
+        if (method != null && visible(type) && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            try {
+                return lambdaGetter(type, method);
+            } catch (Throwable ignored) {
+                // 无访问权限等情况退化为MethodHandle
+            }
+        }
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> {
+                try {
+                    return (Object) handle.invokeExact(bean);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("读取字段失败：" + field, e);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问字段：" + field, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> lambdaGetter(Class<?> type, Method method) throws Throwable {
+        MethodHandle target = LOOKUP.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                target,
+                MethodType.methodType(method.getReturnType(), type).wrap());
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    private static Method findGetter(Class<?> type, Field field) {
+        String name = field.getName();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String[] candidates = field.getType() == boolean.class
+                ? new String[]{"is" + suffix, "get" + suffix}
+                : new String[]{"get" + suffix};
+        for (String candidate : candidates) {
+            try {
+                Method method = type.getMethod(candidate);
+                if (method.getReturnType() == field.getType()) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // 没有对应getter
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 生成的lambda类定义在本类的类加载器中，要求bean类对其可见且为public
+     */
+    private static boolean visible(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, ExcelBeanMeta.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    static final class Column {
+
+        final int index;
+
+        final String title;
+
+        final int width;
+
+        /**
+         * 数据格式，null表示使用类型默认格式
+         */
+        final String format;
+
+        final StringStorage storage;
+
+        final Field field;
+
+        private final Function<Object, Object> getter;
+
+        private volatile Function<Cell, Object> converter;
+
+        private volatile ViewConverter viewConverter;
+
+        private volatile MethodHandle setter;
+
+        private Column(Field field, ExcelColumn annotation, Function<Object, Object> getter) {
+            this.index = annotation.index();
+            this.title = annotation.title().isEmpty() ? field.getName() : annotation.title();
+            this.width = annotation.width();
+            this.format = annotation.format().isEmpty() ? null : annotation.format();
+            this.storage = annotation.storage();
+            this.field = field;
+            this.getter = getter;
+        }
+
+        Object get(Object bean) {
+            return getter.apply(bean);
+        }
+
+        private Function<Cell, Object> converter() {
+            Function<Cell, Object> c = converter;
+            if (c == null) {
+                c = CONVERTERS.get(field.getType());
+                if (c == null) {
+                    throw new IllegalStateException("不支持导入的字段类型：" + field);
+                }
+                converter = c;
+            }
+            return c;
+        }
+
+        private ViewConverter viewConverter() {
+            ViewConverter c = viewConverter;
+            if (c == null) {
+                c = VIEW_CONVERTERS.get(field.getType());
+                if (c == null) {
+                    throw new IllegalStateException("不支持导入的字段类型：" + field);
+                }
+                viewConverter = c;
+            }
+            return c;
+        }
+
+        private void set(Object bean, Object value) {
+            MethodHandle handle = setter;
+            if (handle == null) {
+                try {
+                    field.setAccessible(true);
+                    handle = LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("无法写入字段：" + field, e);
+                }
+                setter = handle;
+            }
+            try {
+                handle.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("写入字段失败：" + field, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ViewConverter {
+
+        Object apply(RowView row, int cellnum);
+    }
+}
@@ -0,0 +1,222 @@
+package util;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/**
+ * 单元格类型化读取，数值单元格直接取 double 转换，不经过中间字符串
+ * 空单元格返回null，文本单元格按文本解析
+ */
+public final class ExcelCells {
+
+    public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final DateTimeFormatter DASH_DATE = DateTimeFormatter.ofPattern("yyyy-M-d");
+
+    private static final DateTimeFormatter SLASH_DATE = DateTimeFormatter.ofPattern("yyyy/M/d");
+
+    private static final DateTimeFormatter COMPACT_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static final LocalDate EPOCH_1900 = LocalDate.of(1899, 12, 31);
+
+    private static final LocalDate EPOCH_1900_AFTER_LEAP_BUG = LocalDate.of(1899, 12, 30);
+
+    private static final LocalDate EPOCH_1904 = LocalDate.of(1904, 1, 1);
+
+    /**
+     * 超出long精确范围的数值才会用到，DecimalFormat非线程安全，按线程缓存
+     */
+    private static final ThreadLocal<DecimalFormat> INTEGER_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("0"));
+
+    private ExcelCells() {
+    }
+
+    public static String toString(Cell cell) {
+        return PoiExcelUtil.getValue(cell);
+    }
+
+    public static Double toDouble(Cell cell) {
+        CellType type = typeOf(cell);
+        if (type == CellType.NUMERIC) {
+            return cell.getNumericCellValue();
+        }
+        String text = text(cell, type);
+        return text == null ? null : Double.valueOf(text);
+    }
+
+    /**
+     * 数值单元格与文本单元格一样必须是整数，有小数部分或超出long范围时抛出 ArithmeticException
+     */
+    public static Long toLong(Cell cell) {
+        CellType type = typeOf(cell);
+        if (type == CellType.NUMERIC) {
+            return BigDecimal.valueOf(cell.getNumericCellValue()).longValueExact();
+        }
+        String text = text(cell, type);
+        return text == null ? null : new BigDecimal(text).longValueExact();
+    }
+
+    public static Integer toInteger(Cell cell) {
+        Long value = toLong(cell);
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    public static BigDecimal toDecimal(Cell cell) {
+        CellType type = typeOf(cell);
+        if (type == CellType.NUMERIC) {
+            return BigDecimal.valueOf(cell.getNumericCellValue());
+        }
+        String text = text(cell, type);
+        return text == null ? null : new BigDecimal(text);
+    }
+
+    public static Boolean toBoolean(Cell cell) {
+        CellType type = typeOf(cell);
+        if (type == CellType.BOOLEAN) {
+            return cell.getBooleanCellValue();
+        }
+        if (type == CellType.NUMERIC) {
+            return cell.getNumericCellValue() != 0;
+        }
+        String text = text(cell, type);
+        return text == null ? null : "true".equalsIgnoreCase(text) || "1".equals(text);
+    }
+
+    public static Date toDate(Cell cell) {
+        CellType type = typeOf(cell);
+        if (type == CellType.NUMERIC) {
+            return cell.getDateCellValue();
+        }
+        LocalDateTime value = toLocalDateTime(cell);
+        return value == null ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public static LocalDateTime toLocalDateTime(Cell cell) {
+        CellType type = typeOf(cell);
+        if (type == CellType.NUMERIC) {
+            return toLocalDateTime(cell.getNumericCellValue(), isDate1904(cell.getSheet().getWorkbook()));
+        }
+        String text = text(cell, type);
+        if (text == null) {
+            return null;
+        }
+        return parseDateTime(text);
+    }
+
+    /**
+     * 文本日期的统一解析，读取和 {@link RowValidator.ColumnBuilder#date()} 校验共用；
+     * 日期支持 yyyy-M-d、yyyy/M/d、yyyyMMdd，带时间的按 yyyy-MM-dd HH:mm:ss，按文本形态只解析一次
+     *
+     * @throws DateTimeParseException 不是支持的格式
+     */
+    public static LocalDateTime parseDateTime(String text) {
+        if (text.indexOf(' ') >= 0) {
+            return LocalDateTime.parse(text, CellWriters.DATE_TIME_FORMATTER);
+        }
+        DateTimeFormatter formatter = text.indexOf('-') >= 0 ? DASH_DATE : text.indexOf('/') >= 0 ? SLASH_DATE : COMPACT_DATE;
+        return LocalDate.parse(text, formatter).atStartOfDay();
+    }
+
+    public static LocalDate toLocalDate(Cell cell) {
+        LocalDateTime value = toLocalDateTime(cell);
+        return value == null ? null : value.toLocalDate();
+    }
+
+    /**
+     * Excel日期序列号转换为LocalDateTime，与 DateUtil.getJavaDate 的取整规则一致，但不经过Date/Calendar
+     *
+     * @param serial   日期序列号
+     * @param date1904 是否使用1904日期系统
+     */
+    public static LocalDateTime toLocalDateTime(double serial, boolean date1904) {
+        if (serial < 0) {
+            throw new IllegalArgumentException("无效的日期值：" + serial);
+        }
+        int wholeDays = (int) Math.floor(serial);
+        long millis = (long) ((serial - wholeDays) * DAY_MILLIS + 0.5);
+        LocalDate day;
+        if (date1904) {
+            day = EPOCH_1904.plusDays(wholeDays);
+        } else if (wholeDays < 61) {
+            day = EPOCH_1900.plusDays(wholeDays);
+        } else {
+            // Excel把1900年当作闰年，60号序列号之后需要少算一天
+            day = EPOCH_1900_AFTER_LEAP_BUG.plusDays(wholeDays);
+        }
+        return day.atStartOfDay().plusNanos(millis * 1_000_000L);
+    }
+
+    /**
+     * 数值四舍六入五成双取整为文本，与 new DecimalFormat("0").format(value) 结果一致
+     */
+    static String formatInteger(double value) {
+        if (Math.abs(value) < 1e15) {
+            long rounded = (long) Math.rint(value);
+            if (rounded == 0 && (value < 0 || 1 / value < 0)) {
+                return "-0";
+            }
+            return Long.toString(rounded);
+        }
+        return INTEGER_FORMAT.get().format(value);
+    }
+
+    /**
+     * 数值转换为非科学计数法文本，与 new BigDecimal(value).toPlainString() 结果一致
+     */
+    static String formatPlain(double value) {
+        if (Math.abs(value) < 1e15 && value == Math.rint(value)) {
+            return Long.toString((long) value);
+        }
+        return new BigDecimal(value).toPlainString();
+    }
+
+    private static boolean isDate1904(Workbook workbook) {
+        if (workbook instanceof XSSFWorkbook) {
+            return ((XSSFWorkbook) workbook).isDate1904();
+        }
+        if (workbook instanceof SXSSFWorkbook) {
+            return ((SXSSFWorkbook) workbook).getXSSFWorkbook().isDate1904();
+        }
+        if (workbook instanceof HSSFWorkbook) {
+            return ((HSSFWorkbook) workbook).getInternalWorkbook().isUsing1904DateWindowing();
+        }
+        return false;
+    }
+
+    /**
+     * 单元格实际值类型，公式单元格取缓存结果类型，空单元格返回null
+     */
+    private static CellType typeOf(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+        CellType type = cell.getCellType();
+        if (type == CellType.FORMULA) {
+            type = cell.getCachedFormulaResultType();
+        }
+        return type == CellType.BLANK || type == CellType.ERROR ? null : type;
+    }
+
+    private static String text(Cell cell, CellType type) {
+        if (type == null) {
+            return null;
+        }
+        String text = type == CellType.BOOLEAN ? String.valueOf(cell.getBooleanCellValue()) : cell.getStringCellValue().trim();
+        return text.isEmpty() ? null : text;
+    }
+}
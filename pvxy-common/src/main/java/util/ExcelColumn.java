@@ -0,0 +1,40 @@
+package util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注导出/导入的Excel列，配合 {@link PoiExcelUtil#writeBeans(java.util.List, Class)} 使用
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExcelColumn {
+
+    /**
+     * 列号，从0开始
+     */
+    int index();
+
+    /**
+     * 标题，为空时使用字段名
+     */
+    String title() default "";
+
+    /**
+     * 列宽（字符数），大于0时固定使用该值；
+     * 0 表示不指定：开启自动列宽（默认）时导出前按标题和写入内容估算，关闭自动列宽时以及流式分页导出按标题长度计算
+     */
+    int width() default 0;
+
+    /**
+     * Excel数据格式，如 "0.00"、"yyyy-mm-dd"，为空时使用类型默认格式
+     */
+    String format() default "";
+
+    /**
+     * 字符串存储方式，仅对流式分页导出（{@link XlsxStreamWriter}）生效
+     */
+    StringStorage storage() default StringStorage.AUTO;
+}
@@ -0,0 +1,118 @@
+package util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * 基于 FileChannel 的文件工具：上传落盘、写本地文件、文件摘要
+ * 来源是文件时用 transferFrom 零拷贝，否则经过一块较大的直接缓冲区，减少系统调用次数
+ */
+public final class ExcelFiles {
+
+    /**
+     * 直接缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * 每次映射的最大长度
+     */
+    private static final long MAP_SIZE = 64L * 1024 * 1024;
+
+    private ExcelFiles() {
+    }
+
+    /**
+     * 将输入流写入文件（覆盖），不关闭输入流
+     *
+     * @return 写入的字节数
+     */
+    public static long spool(InputStream in, Path target) throws IOException {
+        return spool(in, target, null);
+    }
+
+    /**
+     * 将输入流写入文件（覆盖），同时计算摘要，不关闭输入流
+     *
+     * @param digest 摘要，null表示不计算
+     * @return 写入的字节数
+     */
+    public static long spool(InputStream in, Path target, MessageDigest digest) throws IOException {
+        try (FileChannel out = openForWrite(target)) {
+            if (digest == null && in instanceof FileInputStream) {
+                return transfer(((FileInputStream) in).getChannel(), out);
+            }
+            ReadableByteChannel source = Channels.newChannel(in);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long total = 0;
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (digest != null) {
+                    buffer.mark();
+                    digest.update(buffer);
+                    buffer.reset();
+                }
+                while (buffer.hasRemaining()) {
+                    total += out.write(buffer);
+                }
+                buffer.clear();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * 上传文件落盘
+     */
+    public static long spool(MultipartFile file, Path target) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return spool(in, target);
+        }
+    }
+
+    /**
+     * 按内存映射分段读取文件计算摘要，不经过用户态缓冲区复制
+     */
+    public static byte[] digest(Path file, MessageDigest digest) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_SIZE) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SIZE, size - position));
+                digest.update(mapped);
+            }
+            return digest.digest();
+        }
+    }
+
+    /**
+     * 打开用于写入的文件通道（覆盖），写完后调用 {@link FileChannel#force(boolean)} 一次落盘
+     */
+    static FileChannel openForWrite(Path target) throws IOException {
+        return FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static long transfer(FileChannel in, FileChannel out) throws IOException {
+        long remaining = in.size() - in.position();
+        long total = 0;
+        while (total < remaining) {
+            long n = out.transferFrom(in, total, remaining - total);
+            if (n <= 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+}
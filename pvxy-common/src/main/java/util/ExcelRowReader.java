@@ -0,0 +1,243 @@
+package util;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+/**
+ * 基于SAX事件的xlsx流式读取，内存占用只有当前行和共享字符串表
+ * 数值单元格在格式化前记录原始数值，供类型化读取使用
+ */
+class ExcelRowReader implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+    private final RowHandler handler;
+
+    private final RowView row = new RowView();
+
+    /**
+     * 记录最近一次格式化的原始数值，紧接着的 cell 回调使用
+     */
+    private final DataFormatter formatter = new DataFormatter() {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            number = value;
+            date = DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value);
+            numeric = true;
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+    };
+
+    private boolean numeric;
+
+    private double number;
+
+    private boolean date;
+
+    private int lastCol = -1;
+
+    private int count = 0;
+
+    private ExcelRowReader(RowHandler handler, boolean date1904) {
+        this.handler = handler;
+        this.row.setDate1904(date1904);
+    }
+
+    /**
+     * 逐行读取指定sheet，返回回调处理的行数
+     */
+    static int read(File file, int sheetIndex, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = xssfReader.getStylesTable();
+            boolean date1904 = isDate1904(xssfReader);
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            for (int i = 0; sheets.hasNext(); i++) {
+                try (InputStream sheet = sheets.next()) {
+                    if (i != sheetIndex) {
+                        continue;
+                    }
+                    return new ExcelRowReader(handler, date1904).parse(sheet, styles, strings);
+                }
+            }
+            throw new IllegalArgumentException("sheet不存在：" + sheetIndex);
+        } catch (OpenXML4JException | XmlException | SAXException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 并行读取所有sheet，每个sheet一个任务，共享字符串表和样式表只解析一次
+     * 所有任务结束后才返回，任一sheet失败时抛出第一个异常
+     *
+     * @param handlers sheet下标 -> 该sheet的行回调，每个回调只在一个线程中使用
+     * @return sheet数量
+     */
+    static int readAll(File file, ForkJoinPool pool, IntFunction<RowHandler> handlers) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = xssfReader.getStylesTable();
+            boolean date1904 = isDate1904(xssfReader);
+            List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+            try {
+                Iterator<InputStream> sheets = xssfReader.getSheetsData();
+                for (int i = 0; sheets.hasNext(); i++) {
+                    InputStream sheet = sheets.next();
+                    ExcelRowReader reader = new ExcelRowReader(handlers.apply(i), date1904);
+                    tasks.add(pool.submit(() -> {
+                        try (InputStream in = sheet) {
+                            return reader.parse(in, styles, strings);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+                }
+            } finally {
+                // 包关闭前必须等所有任务读完各自的sheet
+                join(tasks);
+            }
+            return tasks.size();
+        } catch (OpenXML4JException | XmlException | SAXException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void join(List<ForkJoinTask<Integer>> tasks) throws IOException {
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (ForkJoinTask<Integer> task : tasks) {
+            while (true) {
+                try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                        // 跨线程时 ForkJoinTask 会新建同类型异常包装原异常，取回原异常
+                        Throwable cause = failure.getCause();
+                        if (cause != null && cause.getClass() == failure.getClass()) {
+                            failure = cause;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) failure).getCause();
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    private int parse(InputStream sheet, StylesTable styles, ReadOnlySharedStringsTable strings) throws IOException {
+        try {
+            XMLReader parser = SAXHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, this, formatter, false));
+            parser.parse(new InputSource(sheet));
+        } catch (StopReading ignored) {
+            // 回调要求停止读取
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException(e);
+        }
+        return count;
+    }
+
+    private static boolean isDate1904(XSSFReader reader) throws IOException, OpenXML4JException, XmlException {
+        try (InputStream in = reader.getWorkbookData()) {
+            CTWorkbook workbook = WorkbookDocument.Factory.parse(in).getWorkbook();
+            return workbook.isSetWorkbookPr() && workbook.getWorkbookPr().getDate1904();
+        }
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+        row.reset(rowNum);
+        lastCol = -1;
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+        count++;
+        if (!handler.handle(row)) {
+            throw StopReading.INSTANCE;
+        }
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+        int col = cellReference == null ? lastCol + 1 : columnIndex(cellReference);
+        lastCol = col;
+        if (numeric) {
+            numeric = false;
+            row.setNumber(col, formattedValue, number, date);
+        } else {
+            row.set(col, formattedValue);
+        }
+    }
+
+    @Override
+    public void headerFooter(String text, boolean isHeader, String tagName) {
+    }
+
+    /**
+     * 解析单元格引用（如 AB12）中的列号，避免每个单元格创建CellReference
+     */
+    private static int columnIndex(String cellReference) {
+        int col = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    private static class StopReading extends RuntimeException {
+
+        private static final StopReading INSTANCE = new StopReading();
+
+        private StopReading() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import lombok.Getter;
+
+/**
+ * 异步导出任务状态
+ */
+@Getter
+public class ExportJob {
+
+    public enum State {
+        /**
+         * 排队中
+         */
+        WAITING,
+        RUNNING,
+        SUCCESS,
+        FAILED
+    }
+
+    private final String id;
+
+    private final String fileName;
+
+    private final long createTime = System.currentTimeMillis();
+
+    private volatile State state = State.WAITING;
+
+    /**
+     * 进度百分比 0-100
+     */
+    private volatile int progress;
+
+    private volatile String msg;
+
+    private volatile long finishTime;
+
+    ExportJob(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+    }
+
+    /**
+     * 上报进度，由导出逻辑在渲染过程中调用
+     *
+     * @param done  已完成数量
+     * @param total 总数量
+     */
+    public void progress(long done, long total) {
+        if (total > 0) {
+            this.progress = (int) Math.min(99, done * 100 / total);
+        }
+    }
+
+    public boolean isFinished() {
+        return state == State.SUCCESS || state == State.FAILED;
+    }
+
+    void running() {
+        this.state = State.RUNNING;
+    }
+
+    void success() {
+        this.progress = 100;
+        this.finishTime = System.currentTimeMillis();
+        this.state = State.SUCCESS;
+    }
+
+    void failed(String msg) {
+        this.msg = msg;
+        this.finishTime = System.currentTimeMillis();
+        this.state = State.FAILED;
+    }
+}
@@ -0,0 +1,179 @@
+package util;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.URLUtil;
+import lombok.extern.slf4j.Slf4j;
+import vo.R;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步导出任务引擎
+ * 大导出不在请求线程中执行：提交后立即返回任务ID，由有界线程池渲染到本地目录，
+ * 前端轮询状态，完成后下载；写文件失败的任务标记为失败，不会被当成成功下载；过期文件按TTL清理
+ */
+@Slf4j
+public class ExportJobManager {
+
+    /**
+     * 导出逻辑，返回渲染好的工作簿
+     */
+    @FunctionalInterface
+    public interface ExportTask {
+
+        PoiExcelUtil render(ExportJob job) throws Exception;
+    }
+
+    private final File dir;
+
+    private final long ttlMillis;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService cleaner;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param workers       并发导出数
+     * @param queueCapacity 排队上限，超过后拒绝提交
+     * @param dir           导出文件目录
+     * @param ttl           完成后文件保留时长
+     */
+    public ExportJobManager(int workers, int queueCapacity, File dir, long ttl, TimeUnit unit) {
+        this.dir = dir;
+        this.ttlMillis = unit.toMillis(ttl);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "excel-export-" + seq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "excel-export-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(ttlMillis / 2, 1000L);
+        cleaner.scheduleWithFixedDelay(this::cleanExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交导出任务
+     *
+     * @param fileName 下载时的文件名（不含后缀）
+     * @return 任务ID
+     */
+    public R<String> submit(String fileName, ExportTask task) {
+        String id = IdUtil.fastSimpleUUID();
+        ExportJob job = new ExportJob(id, fileName);
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            return R.fail("导出任务过多，请稍候再试");
+        }
+        return R.success(id);
+    }
+
+    /**
+     * 查询任务状态和进度
+     */
+    public R<ExportJob> status(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            return R.fail("导出任务不存在或已过期");
+        }
+        return R.success(job);
+    }
+
+    /**
+     * 下载已完成的导出文件，按 FileChannel.transferTo 分段写入响应流
+     * 响应流不是文件或套接字通道，数据仍会经过一次用户态缓冲区复制
+     * 调用该方法后，主方法不要return或者return null
+     *
+     * @return 是否下载成功，任务不存在或未完成时返回false
+     */
+    public boolean download(String id, HttpServletResponse response) throws IOException {
+        ExportJob job = jobs.get(id);
+        if (job == null || job.getState() != ExportJob.State.SUCCESS) {
+            return false;
+        }
+        File file = fileOf(id);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setContentType(PoiExcelUtil.XLSX_CONTENT_TYPE);
+            response.setHeader("Content-Disposition", "attachment;filename=" + URLUtil.encode(job.getFileName()) + ".xlsx");
+            response.setContentLengthLong(size);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < size; ) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 当前排队数
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(ExportJob job, ExportTask task) {
+        job.running();
+        try {
+            PoiExcelUtil excel = task.render(job);
+            if (excel == null || excel.export(new File(dir, job.getId()).getPath()) == null) {
+                job.failed("导出失败");
+                return;
+            }
+            job.success();
+        } catch (Exception e) {
+            log.error("导出任务失败：{}", job.getId(), e);
+            job.failed(e.getMessage() == null ? R.DEF_ERROR_MESSAGE : e.getMessage());
+        }
+    }
+
+    private void cleanExpired() {
+        long deadline = System.currentTimeMillis() - ttlMillis;
+        Iterator<ExportJob> it = jobs.values().iterator();
+        while (it.hasNext()) {
+            ExportJob job = it.next();
+            if (job.isFinished() && job.getFinishTime() < deadline) {
+                it.remove();
+                File file = fileOf(job.getId());
+                if (file.exists() && !file.delete()) {
+                    log.warn("删除过期导出文件失败：{}", file);
+                }
+            }
+        }
+    }
+
+    private File fileOf(String id) {
+        return new File(dir, id + ".xlsx");
+    }
+}
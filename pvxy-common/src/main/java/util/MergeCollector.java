@@ -0,0 +1,196 @@
+package util;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTMergeCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTMergeCells;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorksheet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 合并区域收集器
+ * merge/mergeY 只记录区域坐标，导出时按起始行排序后一次扫描检查重叠，
+ * 没有重叠再批量注册，不再每次 addMergedRegion 都与已有的全部区域比对
+ */
+class MergeCollector {
+
+    /**
+     * 重叠报告中最多列出的区域对数
+     */
+    private static final int MAX_REPORTED = 20;
+
+    private static final SpreadsheetVersion VERSION = SpreadsheetVersion.EXCEL2007;
+
+    /**
+     * 每个区域占4个int：开始行、结束行、开始列、结束列
+     */
+    private int[] regions = new int[64];
+
+    private int size;
+
+    /**
+     * 记录一个合并区域，只做单个区域自身的合法性校验
+     */
+    void add(int firstRow, int lastRow, int firstCol, int lastCol) {
+        check(firstRow, lastRow, firstCol, lastCol);
+        int offset = size * 4;
+        if (offset == regions.length) {
+            regions = Arrays.copyOf(regions, regions.length * 2);
+        }
+        regions[offset] = firstRow;
+        regions[offset + 1] = lastRow;
+        regions[offset + 2] = firstCol;
+        regions[offset + 3] = lastCol;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 与 shiftRows 对合并区域的处理一致：完全落在 [startRow, endRow] 内的区域整体下移
+     */
+    void shift(int startRow, int endRow, int n) {
+        for (int offset = 0; offset < size * 4; offset += 4) {
+            if (regions[offset] >= startRow && regions[offset + 1] <= endRow) {
+                regions[offset] += n;
+                regions[offset + 1] += n;
+            }
+        }
+    }
+
+    /**
+     * 单个区域的合法性校验，与 addMergedRegion 一致：单个单元格不能合并
+     */
+    static void check(int firstRow, int lastRow, int firstCol, int lastCol) {
+        if (firstRow > lastRow || firstCol > lastCol || firstRow < 0 || firstCol < 0
+                || lastRow > VERSION.getLastRowIndex() || lastCol > VERSION.getLastColumnIndex()) {
+            throw new IllegalArgumentException("非法的合并区域: 行" + firstRow + "-" + lastRow + ", 列" + firstCol + "-" + lastCol);
+        }
+        if (firstRow == lastRow && firstCol == lastCol) {
+            throw new IllegalArgumentException("合并区域 " + format(firstRow, lastRow, firstCol, lastCol) + " 至少需要2个单元格");
+        }
+    }
+
+    /**
+     * 检查重叠（含sheet上已有的合并区域）并批量注册到sheet，完成后清空
+     *
+     * @throws IllegalStateException 存在重叠区域时，一次列出所有重叠
+     */
+    void register(Sheet sheet) {
+        if (size == 0) {
+            return;
+        }
+        List<CellRangeAddress> existing = sheet.getMergedRegions();
+        int total = existing.size() + size;
+        int[] all = Arrays.copyOf(regions, total * 4);
+        for (int i = 0; i < existing.size(); i++) {
+            CellRangeAddress region = existing.get(i);
+            int offset = (size + i) * 4;
+            all[offset] = region.getFirstRow();
+            all[offset + 1] = region.getLastRow();
+            all[offset + 2] = region.getFirstColumn();
+            all[offset + 3] = region.getLastColumn();
+        }
+        List<String> overlaps = sweep(all, total);
+        if (!overlaps.isEmpty()) {
+            throw new IllegalStateException("合并区域存在重叠: " + String.join(", ", overlaps));
+        }
+        XSSFSheet xssfSheet = xssfSheet(sheet);
+        if (xssfSheet != null) {
+            append(xssfSheet.getCTWorksheet());
+        } else {
+            for (int i = 0; i < size; i++) {
+                int offset = i * 4;
+                sheet.addMergedRegionUnsafe(new CellRangeAddress(regions[offset], regions[offset + 1],
+                        regions[offset + 2], regions[offset + 3]));
+            }
+        }
+        regions = new int[64];
+        size = 0;
+    }
+
+    /**
+     * XSSF 的 addMergedRegionUnsafe 每次都要重新统计已有区域个数，这里一次性整体写入
+     */
+    private void append(CTWorksheet worksheet) {
+        CTMergeCells mergeCells = worksheet.isSetMergeCells() ? worksheet.getMergeCells() : worksheet.addNewMergeCells();
+        CTMergeCell[] existing = mergeCells.getMergeCellArray();
+        CTMergeCell[] all = Arrays.copyOf(existing, existing.length + size);
+        for (int i = 0; i < size; i++) {
+            int offset = i * 4;
+            CTMergeCell mergeCell = CTMergeCell.Factory.newInstance();
+            mergeCell.setRef(format(regions, offset));
+            all[existing.length + i] = mergeCell;
+        }
+        mergeCells.setMergeCellArray(all);
+        mergeCells.setCount(all.length);
+    }
+
+    private static XSSFSheet xssfSheet(Sheet sheet) {
+        if (sheet instanceof XSSFSheet) {
+            return (XSSFSheet) sheet;
+        }
+        if (sheet instanceof SXSSFSheet) {
+            SXSSFWorkbook workbook = ((SXSSFSheet) sheet).getWorkbook();
+            return workbook.getXSSFWorkbook().getSheetAt(workbook.getSheetIndex(sheet));
+        }
+        return null;
+    }
+
+    /**
+     * 按开始行排序后扫描，只与仍覆盖当前行的区域比较列区间
+     */
+    private static List<String> sweep(int[] all, int total) {
+        Integer[] order = IntStream.range(0, total).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingInt(i -> all[i * 4]));
+        int[] active = new int[16];
+        int activeSize = 0;
+        List<String> overlaps = new ArrayList<>();
+        int overlapCount = 0;
+        for (int current : order) {
+            int c = current * 4;
+            int kept = 0;
+            for (int k = 0; k < activeSize; k++) {
+                int a = active[k] * 4;
+                if (all[a + 1] < all[c]) {
+                    // 已结束的区域移出活动集
+                    continue;
+                }
+                active[kept++] = active[k];
+                if (all[a + 2] <= all[c + 3] && all[c + 2] <= all[a + 3]) {
+                    if (overlapCount++ < MAX_REPORTED) {
+                        overlaps.add(format(all, a) + " 与 " + format(all, c));
+                    }
+                }
+            }
+            activeSize = kept;
+            if (activeSize == active.length) {
+                active = Arrays.copyOf(active, active.length * 2);
+            }
+            active[activeSize++] = current;
+        }
+        if (overlapCount > MAX_REPORTED) {
+            overlaps.add("等共" + overlapCount + "处");
+        }
+        return overlaps;
+    }
+
+    private static String format(int[] all, int offset) {
+        return format(all[offset], all[offset + 1], all[offset + 2], all[offset + 3]);
+    }
+
+    private static String format(int firstRow, int lastRow, int firstCol, int lastCol) {
+        return new CellRangeAddress(firstRow, lastRow, firstCol, lastCol).formatAsString();
+    }
+}
@@ -0,0 +1,108 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 多sheet并行生成
+ * sheet在提交前按顺序创建，每个sheet由独立任务写入自己的视图：SXSSF每个sheet各自刷出临时文件、
+ * 字符串内联不经过共享字符串表，样式注册表加锁共用，因此sheet之间可以并行；全部完成后得到同一个工作簿用于导出
+ * <pre>
+ * PoiExcelUtil excel = PoiExcelUtil.newMultiSheetExcel(500)
+ *         .sheet("华东", s -&gt; s.title("机构", "金额")...)
+ *         .sheet("华南", s -&gt; ...)
+ *         .build();
+ * excel.export(fileName, response);
+ * </pre>
+ */
+public class MultiSheetBuilder {
+
+    /**
+     * 单个sheet的填充逻辑，参数是只写这个sheet的视图
+     */
+    @FunctionalInterface
+    public interface SheetFiller {
+
+        void fill(PoiExcelUtil sheet) throws Exception;
+    }
+
+    private final PoiExcelUtil excel;
+
+    private final Map<String, SheetFiller> fillers = new LinkedHashMap<>();
+
+    MultiSheetBuilder(PoiExcelUtil excel) {
+        this.excel = excel;
+    }
+
+    /**
+     * 添加一个sheet，按添加顺序排列
+     */
+    public MultiSheetBuilder sheet(String name, SheetFiller filler) {
+        if (fillers.put(name, filler) != null) {
+            throw new IllegalArgumentException("sheet名称重复：" + name);
+        }
+        return this;
+    }
+
+    /**
+     * 在公共ForkJoinPool中并行填充
+     */
+    public PoiExcelUtil build() {
+        return build(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行填充所有sheet，返回定位在第一个sheet的工具类
+     *
+     * @throws IllegalStateException 任一sheet填充失败，此时临时文件已清理
+     */
+    public PoiExcelUtil build(ForkJoinPool pool) {
+        if (fillers.isEmpty()) {
+            throw new IllegalStateException("至少需要一个sheet");
+        }
+        Workbook workbook = excel.getWorkbook();
+        List<String> names = new ArrayList<>(fillers.keySet());
+        workbook.setSheetName(0, names.get(0));
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            Sheet sheet = i == 0 ? workbook.getSheetAt(0) : workbook.createSheet(name);
+            PoiExcelUtil view = excel.view(sheet);
+            SheetFiller filler = fillers.get(name);
+            tasks.add(pool.submit(() -> {
+                try {
+                    filler.fill(view);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException("填充sheet失败：" + name, e);
+                }
+                view.finishView();
+            }));
+        }
+        RuntimeException failure = null;
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.join();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    // 跨线程时 join 会新建同类型异常包装原异常，取回原异常
+                    Throwable cause = e.getCause();
+                    failure = cause != null && cause.getClass() == e.getClass() ? (RuntimeException) cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            excel.dispose();
+            throw failure;
+        }
+        return excel;
+    }
+}
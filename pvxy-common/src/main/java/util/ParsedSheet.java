@@ -0,0 +1,252 @@
+package util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 解析后的sheet的列式存储，供 {@link UploadParseCache} 缓存
+ * 每列一个String数组，与上一行相同的值复用同一个引用（状态、机构等列大多连续重复）；
+ * 出现过数值单元格的列另存类型和原始数值，重放时按行还原为与直接读取相同的 {@link RowView}
+ */
+final class ParsedSheet {
+
+    private static final int MAGIC = 0x50535632;
+
+    /**
+     * 序列化时表示与上一行相同的值
+     */
+    private static final int SAME_AS_PREVIOUS = -2;
+
+    private static final int NULL = -1;
+
+    private int rows;
+
+    private int[] rowNums = new int[64];
+
+    private int[] sizes = new int[64];
+
+    private String[][] columns = new String[0][];
+
+    /**
+     * 每列的单元格类型（{@link RowView#TEXT} 等），整列都是文本时为null
+     */
+    private byte[][] kinds = new byte[0][];
+
+    private double[][] numbers = new double[0][];
+
+    private boolean date1904;
+
+    /**
+     * 字符串内容的估算字节数
+     */
+    private long stringBytes;
+
+    /**
+     * 追加一行，row 在调用后可以复用
+     */
+    void add(RowView row) {
+        if (rows == rowNums.length) {
+            int capacity = rows * 2;
+            rowNums = Arrays.copyOf(rowNums, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = Arrays.copyOf(columns[c], capacity);
+                if (kinds[c] != null) {
+                    kinds[c] = Arrays.copyOf(kinds[c], capacity);
+                    numbers[c] = Arrays.copyOf(numbers[c], capacity);
+                }
+            }
+        }
+        date1904 = row.isDate1904();
+        rowNums[rows] = row.getRowNum();
+        sizes[rows] = row.size();
+        for (int c = 0; c < row.size(); c++) {
+            String value = row.read(c);
+            if (value == null) {
+                continue;
+            }
+            String[] column = column(c);
+            String previous = rows > 0 ? column[rows - 1] : null;
+            if (value.equals(previous)) {
+                column[rows] = previous;
+            } else {
+                column[rows] = value;
+                stringBytes += 40 + 2L * value.length();
+            }
+            byte kind = row.kind(c);
+            if (kind != RowView.TEXT) {
+                numeric(c)[rows] = kind;
+                numbers[c][rows] = row.getNumber(c);
+            }
+        }
+        rows++;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * 估算占用的堆内存字节数
+     */
+    long bytes() {
+        long numericBytes = 0;
+        for (byte[] kind : kinds) {
+            if (kind != null) {
+                numericBytes += 9L * kind.length;
+            }
+        }
+        return 64 + 8L * rowNums.length + 8L * columns.length * (rowNums.length + 4) + numericBytes + stringBytes;
+    }
+
+    /**
+     * 按行回放，语义与 {@link ExcelRowReader} 相同：回调返回false停止
+     *
+     * @return 回调处理的行数
+     */
+    int replay(RowHandler handler) {
+        RowView view = new RowView();
+        view.setDate1904(date1904);
+        for (int r = 0; r < rows; r++) {
+            view.reset(rowNums[r]);
+            for (int c = 0; c < sizes[r]; c++) {
+                String value = columns[c][r];
+                if (value == null) {
+                    continue;
+                }
+                byte kind = kinds[c] == null ? RowView.TEXT : kinds[c][r];
+                if (kind == RowView.TEXT) {
+                    view.set(c, value);
+                } else {
+                    view.setNumber(c, value, numbers[c][r], kind == RowView.DATE);
+                }
+            }
+            if (!handler.handle(view)) {
+                return r + 1;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 释放扩容预留的空间
+     */
+    void trim() {
+        rowNums = Arrays.copyOf(rowNums, rows);
+        sizes = Arrays.copyOf(sizes, rows);
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], rows);
+            if (kinds[c] != null) {
+                kinds[c] = Arrays.copyOf(kinds[c], rows);
+                numbers[c] = Arrays.copyOf(numbers[c], rows);
+            }
+        }
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(rows);
+        out.writeInt(columns.length);
+        out.writeBoolean(date1904);
+        for (int r = 0; r < rows; r++) {
+            out.writeInt(rowNums[r]);
+            out.writeInt(sizes[r]);
+        }
+        for (int c = 0; c < columns.length; c++) {
+            String[] column = columns[c];
+            byte[] kind = kinds[c];
+            out.writeBoolean(kind != null);
+            for (int r = 0; r < rows; r++) {
+                if (kind != null) {
+                    out.writeByte(kind[r]);
+                    if (kind[r] != RowView.TEXT) {
+                        out.writeDouble(numbers[c][r]);
+                    }
+                }
+                String value = column[r];
+                if (value == null) {
+                    out.writeInt(NULL);
+                } else if (r > 0 && value == column[r - 1]) {
+                    out.writeInt(SAME_AS_PREVIOUS);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+        }
+    }
+
+    static ParsedSheet read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("缓存文件格式错误");
+        }
+        ParsedSheet sheet = new ParsedSheet();
+        int rows = in.readInt();
+        int columnCount = in.readInt();
+        sheet.date1904 = in.readBoolean();
+        sheet.rows = rows;
+        sheet.rowNums = new int[rows];
+        sheet.sizes = new int[rows];
+        for (int r = 0; r < rows; r++) {
+            sheet.rowNums[r] = in.readInt();
+            sheet.sizes[r] = in.readInt();
+        }
+        sheet.columns = new String[columnCount][];
+        sheet.kinds = new byte[columnCount][];
+        sheet.numbers = new double[columnCount][];
+        for (int c = 0; c < columnCount; c++) {
+            String[] column = new String[rows];
+            byte[] kind = in.readBoolean() ? new byte[rows] : null;
+            double[] number = kind == null ? null : new double[rows];
+            for (int r = 0; r < rows; r++) {
+                if (kind != null) {
+                    kind[r] = in.readByte();
+                    if (kind[r] != RowView.TEXT) {
+                        number[r] = in.readDouble();
+                    }
+                }
+                int length = in.readInt();
+                if (length == SAME_AS_PREVIOUS) {
+                    column[r] = column[r - 1];
+                } else if (length >= 0) {
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    column[r] = new String(bytes, StandardCharsets.UTF_8);
+                    sheet.stringBytes += 40 + 2L * column[r].length();
+                }
+            }
+            sheet.columns[c] = column;
+            sheet.kinds[c] = kind;
+            sheet.numbers[c] = number;
+        }
+        return sheet;
+    }
+
+    private String[] column(int index) {
+        if (index >= columns.length) {
+            int length = columns.length;
+            columns = Arrays.copyOf(columns, index + 1);
+            kinds = Arrays.copyOf(kinds, index + 1);
+            numbers = Arrays.copyOf(numbers, index + 1);
+            for (int c = length; c <= index; c++) {
+                columns[c] = new String[rowNums.length];
+            }
+        }
+        return columns[index];
+    }
+
+    /**
+     * 列中第一次出现数值单元格时才分配类型和数值数组
+     */
+    private byte[] numeric(int index) {
+        if (kinds[index] == null) {
+            kinds[index] = new byte[columns[index].length];
+            numbers[index] = new double[columns[index].length];
+        }
+        return kinds[index];
+    }
+}
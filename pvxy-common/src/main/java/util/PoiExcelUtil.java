@@ -1,11 +1,15 @@
 package util;
 
 import cn.hutool.core.util.URLUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JRuntimeException;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,12 +17,27 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.*;
 import java.math.BigDecimal;
 import java.net.URI;
-import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
 
 /**
  * POI解析EXCEL工具类
@@ -29,12 +48,48 @@ import java.util.Date;
 @Getter
 @Setter
 @Slf4j
-public class PoiExcelUtil {
+public class PoiExcelUtil implements SheetWriter {
+
+    public static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
 
     private Workbook workbook;
 
     private CellStyle cellStyle;
 
+    private CellStyleRegistry styles;
+
+    private final Map<String, Short> dataFormats = new HashMap<>();
+
+    /**
+     * 缓冲行模式下的逻辑行，普通模式为null
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private RowBuffer rowBuffer;
+
+    /**
+     * 当前sheet待注册的合并区域，导出时统一检查重叠并批量注册
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final MergeCollector merges = new MergeCollector();
+
+    /**
+     * 导出时按内容自动设置列宽，新建的Excel默认开启；读取的文件保留原有列宽
+     */
+    private boolean autoWidth;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final ColumnWidths widths = new ColumnWidths();
+
+    /**
+     * 模板填充模式下的样例行，其他模式为null
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SheetTemplate template;
+
     private Sheet sheet;
 
     private int currentRowNum = 0;
@@ -45,6 +100,41 @@ public class PoiExcelUtil {
         workbook = new XSSFWorkbook();
         cellStyle = workbook.createCellStyle();
         sheet = workbook.createSheet();
+        autoWidth = true;
+        init();
+    }
+
+    private PoiExcelUtil(int windowSize, boolean useSharedStrings) {
+        workbook = new SXSSFWorkbook(null, windowSize, false, useSharedStrings);
+        cellStyle = workbook.createCellStyle();
+        sheet = workbook.createSheet();
+        autoWidth = true;
+        init();
+    }
+
+    private PoiExcelUtil(PoiExcelUtil parent, Sheet sheet) {
+        this.workbook = parent.workbook;
+        this.cellStyle = parent.cellStyle;
+        this.styles = parent.styles;
+        this.autoWidth = parent.autoWidth;
+        this.sheet = sheet;
+        this.code = parent.code;
+        sheet.setForceFormulaRecalculation(true);
+    }
+
+    private PoiExcelUtil(InputStream in, String marker, int windowSize) {
+        XSSFWorkbook xssf;
+        try {
+            xssf = new XSSFWorkbook(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        template = SheetTemplate.of(xssf.getSheetAt(0), marker);
+        workbook = new SXSSFWorkbook(xssf, windowSize);
+        cellStyle = workbook.createCellStyle();
+        sheet = workbook.getSheetAt(0);
+        currentRowNum = template.getMarkerRow();
         init();
     }
 
@@ -67,6 +157,70 @@ public class PoiExcelUtil {
         return new PoiExcelUtil();
     }
 
+    /**
+     * 创建空白Excel (缓冲行模式)
+     * 写入、insertRows、合并只记录逻辑布局，导出时一次性生成物理行，
+     * 适合边写边插入小计行的分组报表；导出前不能读取单元格
+     */
+    public static PoiExcelUtil newBufferedExcel() {
+        PoiExcelUtil excel = new PoiExcelUtil();
+        excel.rowBuffer = new RowBuffer();
+        return excel;
+    }
+
+    /**
+     * 创建CSV（逗号分隔），接口与xlsx一致，编码和输出开销远小于xlsx
+     */
+    public static CsvWriter newCsv() {
+        return new CsvWriter(',');
+    }
+
+    /**
+     * 创建CSV，指定分隔符，如 '\t' 为TSV
+     */
+    public static CsvWriter newCsv(char delimiter) {
+        return new CsvWriter(delimiter);
+    }
+
+    /**
+     * 按格式创建写入器，便于控制器按请求参数切换导出格式
+     *
+     * @param format csv、tsv，其余（含null）为xlsx
+     */
+    public static SheetWriter newWriter(String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return newCsv();
+        }
+        if ("tsv".equalsIgnoreCase(format)) {
+            return newCsv('\t');
+        }
+        return newExcel();
+    }
+
+    /**
+     * 创建空白Excel (流式写入)
+     * 内存中只保留最近 windowSize 行，超出窗口的行刷出到临时文件，适合大数据量导出；
+     * 已刷出的行不能再读写，也不支持 insertRows
+     *
+     * @param windowSize 内存中保留的行数
+     */
+    public static PoiExcelUtil newStreamingExcel(int windowSize) {
+        return newStreamingExcel(windowSize, false);
+    }
+
+    /**
+     * 创建空白Excel (流式写入)，指定是否使用共享字符串表
+     * 共享字符串对整个工作簿生效：重复值多时文件更小，但去重表常驻内存；默认内联字符串
+     *
+     * @param useSharedStrings true使用共享字符串表
+     */
+    public static PoiExcelUtil newStreamingExcel(int windowSize, boolean useSharedStrings) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize必须大于0");
+        }
+        return new PoiExcelUtil(windowSize, useSharedStrings);
+    }
+
     /**
      * 加载本地文件 (Path)
      */
@@ -102,6 +256,35 @@ public class PoiExcelUtil {
         return new PoiExcelUtil(in);
     }
 
+    /**
+     * 加载xlsx模板并进入模板填充模式
+     * 保留标记行以上的表头和样式，从标记行开始流式写入数据行（内存中最多保留windowSize行）；
+     * 每个新行套用标记行的行高、各列样式和公式（相对引用按行平移），标记行以下原有的行会被丢弃；
+     * 标记行以上的表头单元格可以用 write(rownum, cellnum, value) 填写，沿用模板中的样式
+     *
+     * @param file       模板文件
+     * @param marker     标记行中某个单元格的内容，如 "${data}"
+     * @param windowSize 内存中保留的行数
+     */
+    public static PoiExcelUtil loadTemplate(File file, String marker, int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize必须大于0");
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return new PoiExcelUtil(in, marker, windowSize);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 加载xlsx模板 (Path)
+     */
+    public static PoiExcelUtil loadTemplate(String path, String marker, int windowSize) {
+        return loadTemplate(new File(path), marker, windowSize);
+    }
+
     /**
      * 加载url文件
      */
@@ -110,26 +293,229 @@ public class PoiExcelUtil {
         return loadFile(file);
     }
 
+    /**
+     * 流式逐行读取第一个sheet（SAX解析，不构建整个工作簿），适合大文件上传
+     * 输入流先落到临时文件再解析，解析结束后删除
+     *
+     * @param in      xlsx输入流，调用方负责关闭
+     * @param handler 行回调，返回false停止读取
+     * @return 读取的行数
+     */
+    public static int streamRows(InputStream in, RowHandler handler) throws IOException {
+        Path tmp = Files.createTempFile("pvxy-excel-", ".xlsx");
+        try {
+            ExcelFiles.spool(in, tmp);
+            return streamRows(tmp.toFile(), 0, handler);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 流式逐行读取第一个sheet
+     */
+    public static int streamRows(File file, RowHandler handler) throws IOException {
+        return streamRows(file, 0, handler);
+    }
+
+    /**
+     * 流式逐行读取指定sheet
+     *
+     * @param sheetIndex sheet下标，从0开始
+     */
+    public static int streamRows(File file, int sheetIndex, RowHandler handler) throws IOException {
+        return ExcelRowReader.read(file, sheetIndex, handler);
+    }
+
     public boolean loadSuccess() {
         return this.code == 200 && workbook != null;
     }
 
     public String read(int cellnum) {
+        checkWindow(this.currentRowNum);
         return getValue(this.sheet.getRow(this.currentRowNum).getCell(cellnum));
     }
 
     public String readDate(int cellnum) {
+        checkWindow(this.currentRowNum);
         return getDateValue(this.sheet.getRow(this.currentRowNum).getCell(cellnum));
     }
 
+    public Long readLong(int cellnum) {
+        return readLong(this.currentRowNum, cellnum);
+    }
+
+    public Double readDouble(int cellnum) {
+        return readDouble(this.currentRowNum, cellnum);
+    }
+
+    public BigDecimal readDecimal(int cellnum) {
+        return readDecimal(this.currentRowNum, cellnum);
+    }
+
+    public LocalDate readLocalDate(int cellnum) {
+        return readLocalDate(this.currentRowNum, cellnum);
+    }
+
+    public LocalDateTime readLocalDateTime(int cellnum) {
+        return readLocalDateTime(this.currentRowNum, cellnum);
+    }
+
+    /**
+     * 读取为Long，数值单元格直接取值不经过字符串，空单元格返回null
+     */
+    public Long readLong(int rownow, int cellnum) {
+        return ExcelCells.toLong(getCell(rownow, cellnum));
+    }
+
+    public Double readDouble(int rownow, int cellnum) {
+        return ExcelCells.toDouble(getCell(rownow, cellnum));
+    }
+
+    public BigDecimal readDecimal(int rownow, int cellnum) {
+        return ExcelCells.toDecimal(getCell(rownow, cellnum));
+    }
+
+    /**
+     * 读取为LocalDate，日期单元格直接由序列号换算，不经过Date和格式化
+     */
+    public LocalDate readLocalDate(int rownow, int cellnum) {
+        return ExcelCells.toLocalDate(getCell(rownow, cellnum));
+    }
+
+    public LocalDateTime readLocalDateTime(int rownow, int cellnum) {
+        return ExcelCells.toLocalDateTime(getCell(rownow, cellnum));
+    }
+
     public String read(int rownow, int cellnum) {
+        if (isTemplateHead(rownow)) {
+            return getValue(getCell(rownow, cellnum));
+        }
+        checkWindow(rownow);
         return getValue(this.sheet.getRow(rownow).getCell(cellnum));
     }
 
     public String readDate(int rownow, int cellnum) {
+        if (isTemplateHead(rownow)) {
+            return getDateValue(getCell(rownow, cellnum));
+        }
+        checkWindow(rownow);
         return getDateValue(this.sheet.getRow(rownow).getCell(cellnum));
     }
 
+    /**
+     * 按 {@link ExcelColumn} 标注读取当前sheet，跳过第一行标题
+     */
+    public <T> List<T> readBeans(Class<T> clazz) {
+        return readBeans(clazz, 1);
+    }
+
+    /**
+     * 按 {@link ExcelColumn} 标注读取当前sheet，单元格直接按字段类型转换，不经过字符串
+     *
+     * @param headRows 标题行数
+     */
+    public <T> List<T> readBeans(Class<T> clazz, int headRows) {
+        return readSheet(this.sheet, clazz, headRows);
+    }
+
+    /**
+     * 从xlsx文件读取所有sheet，每个sheet一个任务在 {@link ReadPool} 中用SAX并行解析和转换，结果按sheet顺序合并
+     * 不构建整个工作簿，适合sheet多、数据量大的导入
+     */
+    public static <T> List<T> readAllBeans(File file, Class<T> clazz) throws IOException {
+        return readAllBeans(file, clazz, 1, ReadPool.INSTANCE);
+    }
+
+    /**
+     * 从xlsx输入流读取所有sheet，输入流先落到临时文件再解析，解析结束后删除
+     *
+     * @param in xlsx输入流，调用方负责关闭
+     */
+    public static <T> List<T> readAllBeans(InputStream in, Class<T> clazz) throws IOException {
+        Path tmp = Files.createTempFile("pvxy-excel-", ".xlsx");
+        try {
+            ExcelFiles.spool(in, tmp);
+            return readAllBeans(tmp.toFile(), clazz);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 从xlsx文件并行读取所有sheet，共享字符串表只解析一次，每个sheet的XML由各自的任务流式解析
+     *
+     * @param headRows 每个sheet的标题行数
+     * @param pool     执行解析的线程池
+     */
+    public static <T> List<T> readAllBeans(File file, Class<T> clazz, int headRows, ForkJoinPool pool) throws IOException {
+        ExcelBeanMeta meta = ExcelBeanMeta.of(clazz);
+        Map<Integer, List<T>> sheets = new ConcurrentHashMap<>();
+        int count = ExcelRowReader.readAll(file, pool, index -> {
+            List<T> list = new ArrayList<>();
+            sheets.put(index, list);
+            return row -> {
+                if (row.getRowNum() >= headRows) {
+                    Object bean = meta.read(row);
+                    if (bean != null) {
+                        list.add(clazz.cast(bean));
+                    }
+                }
+                return true;
+            };
+        });
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.addAll(sheets.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 读取已加载工作簿的所有sheet，每个sheet一个任务在 {@link ReadPool} 中并行转换，结果按sheet顺序合并
+     * 加载时已构建整个工作簿，读取文件时优先使用 {@link #readAllBeans(File, Class)}
+     */
+    public <T> List<T> readAllBeans(Class<T> clazz) {
+        return readAllBeans(clazz, 1, ReadPool.INSTANCE);
+    }
+
+    /**
+     * 读取已加载工作簿的所有sheet，每个sheet一个任务并行转换，结果按sheet顺序合并
+     *
+     * @param headRows 每个sheet的标题行数
+     * @param pool     执行转换的线程池
+     */
+    public <T> List<T> readAllBeans(Class<T> clazz, int headRows, ForkJoinPool pool) {
+        int count = workbook.getNumberOfSheets();
+        List<ForkJoinTask<List<T>>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Sheet s = workbook.getSheetAt(i);
+            tasks.add(pool.submit(() -> readSheet(s, clazz, headRows)));
+        }
+        List<T> result = new ArrayList<>();
+        for (ForkJoinTask<List<T>> task : tasks) {
+            result.addAll(task.join());
+        }
+        return result;
+    }
+
+    private static <T> List<T> readSheet(Sheet sheet, Class<T> clazz, int headRows) {
+        ExcelBeanMeta meta = ExcelBeanMeta.of(clazz);
+        int last = sheet.getLastRowNum();
+        List<T> list = new ArrayList<>(Math.max(last - headRows + 1, 0));
+        for (int i = headRows; i <= last; i++) {
+            Row row = sheet.getRow(i);
+            if (row == null) {
+                continue;
+            }
+            Object bean = meta.read(row);
+            if (bean != null) {
+                list.add(clazz.cast(bean));
+            }
+        }
+        return list;
+    }
+
     /**
      * 默认当前行，指定列号 write
      *
@@ -138,6 +524,7 @@ public class PoiExcelUtil {
      * @return
      * @throws Exception
      */
+    @Override
     public PoiExcelUtil write(int cellnum, Object object) {
         if (object == null) {
             return this;
@@ -151,6 +538,7 @@ public class PoiExcelUtil {
      * @return
      * @throws Exception
      */
+    @Override
     public PoiExcelUtil write(Object... objects) {
         for (int i = 0; i < objects.length; i++) {
             Object obj = objects[i];
@@ -168,6 +556,7 @@ public class PoiExcelUtil {
      * @return
      * @throws Exception
      */
+    @Override
     public PoiExcelUtil title(Object... objects) {
         for (int i = 0; i < objects.length; i++) {
             Object obj = objects[i];
@@ -176,243 +565,422 @@ public class PoiExcelUtil {
             }
             write(0, i, obj);
         }
+        if (!autoWidth) {
+            int[] widths = new int[objects.length];
+            for (int i = 0; i < objects.length; i++) {
+                widths[i] = objects[i].toString().length() * 3;
+            }
+            setWidth(widths);
+        }
+        return this;
+    }
 
-        int[] widths = new int[objects.length];
-        for (int i = 0; i < objects.length; i++) {
-            widths[i] = objects[i].toString().length() * 3;
+    /**
+     * 按 {@link ExcelColumn} 标注批量写入bean，当前行为第一行时先写标题
+     * 每个类的列取值器只解析一次，逐行写入时没有反射和可变参数数组开销
+     *
+     * @param beans 数据
+     * @param clazz bean类型
+     */
+    public <T> PoiExcelUtil writeBeans(List<T> beans, Class<T> clazz) {
+        return writeBeans(beans.iterator(), clazz);
+    }
+
+    /**
+     * 按 {@link ExcelColumn} 标注批量写入bean，写完后当前行指向下一个空行
+     */
+    public <T> PoiExcelUtil writeBeans(Iterator<T> beans, Class<T> clazz) {
+        ExcelBeanMeta.Column[] columns = ExcelBeanMeta.of(clazz).columns();
+        if (currentRowNum == 0) {
+            title(clazz);
+            nextRow();
+        }
+        while (beans.hasNext()) {
+            T bean = beans.next();
+            if (bean != null) {
+                writeBean(currentRowNum, bean, columns);
+            }
+            nextRow();
+        }
+        return this;
+    }
+
+    /**
+     * 按 {@link ExcelColumn} 标注写入标题和列宽
+     */
+    public PoiExcelUtil title(Class<?> clazz) {
+        for (ExcelBeanMeta.Column column : ExcelBeanMeta.of(clazz).columns()) {
+            write(0, column.index, column.title);
+            if (column.width > 0) {
+                setWidth(column.index, column.width);
+            } else if (!autoWidth) {
+                setWidth(column.index, column.title.length() * 3);
+            }
         }
-        setWidth(widths);
         return this;
     }
 
+    private void writeBean(int rownum, Object bean, ExcelBeanMeta.Column[] columns) {
+        for (ExcelBeanMeta.Column column : columns) {
+            Object value = column.get(bean);
+            if (value == null) {
+                continue;
+            }
+            if (rowBuffer != null) {
+                rowBuffer.put(rownum, column.index, value, HorizontalAlignment.CENTER, RowBuffer.WRAP, column.format);
+            } else {
+                writeCell(getOrCreateCell(rownum, column.index), value, HorizontalAlignment.CENTER, true, column.format);
+            }
+        }
+    }
+
+    /**
+     * 指定行列写入，水平居中、自动换行
+     * 按值类型分派到 {@link CellWriters} 注册的写入器，自定义类型可自行注册
+     */
+    @Override
     public PoiExcelUtil write(int rownum, int cellnum, Object object) {
         if (object == null) {
             return this;
         }
-        Row row = this.sheet.getRow(rownum);
-        if (row == null) {
-            row = this.sheet.createRow(rownum);
-        }
-        Cell cell = row.getCell(cellnum);
-        if (cell == null) {
-            cell = row.createCell(cellnum);
+        if (rowBuffer != null) {
+            rowBuffer.put(rownum, cellnum, object, HorizontalAlignment.CENTER, RowBuffer.WRAP, null);
+            return this;
         }
+        Cell cell = getOrCreateCell(rownum, cellnum);
         //水平居中
-        cell.getCellStyle().setAlignment(HorizontalAlignment.CENTER);
-        cell.getCellStyle().setWrapText(true);
-
-        if (object instanceof Double) {
-            double temp = (double) object;
-            String str = String.valueOf(temp);
-            cell.setCellValue(removeZero(str));
-        } else if (object instanceof Float) {
-            double temp = getDouble((float) object, 2);
-            String str = String.valueOf(temp);
-            cell.setCellValue(removeZero(str));
-        } else if (object instanceof Integer) {
-            cell.setCellValue((int) object);
-        } else if (object instanceof BigDecimal) {
-            double temp = ((BigDecimal) object).doubleValue();
-            String str = String.valueOf(temp);
-            cell.setCellValue(removeZero(str));
-        } else if (object instanceof Long) {
-            cell.setCellValue((long) object);
-        } else if (object instanceof Date) {
-            cell.setCellValue((Date) object);
-        } else if (object instanceof Boolean) {
-            cell.setCellValue((boolean) object);
-        } else if (object instanceof Character) {
-            cell.setCellValue((Character) object);
-        } else if (object instanceof String) {
-            String str = (String) object;
-            cell.setCellValue(str);
-        } else if (object instanceof LocalDate) {
-            cell.setCellValue(((LocalDate) object).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-        } else if (object instanceof LocalDateTime) {
-            cell.setCellValue(((LocalDateTime) object).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        } else {
-            log.error("未知的数据类型！");
-        }
+        writeCell(cell, object, HorizontalAlignment.CENTER, true, null);
         return this;
     }
 
+    /**
+     * 指定行列写入，水平左对齐
+     */
     public PoiExcelUtil writeLeft(int rownum, int cellnum, Object object) {
         if (object == null) {
             return this;
         }
-        Row row = this.sheet.getRow(rownum);
-        if (row == null) {
-            row = this.sheet.createRow(rownum);
+        if (object instanceof String) {
+            object = removeZero((String) object);
         }
-        Cell cell = row.getCell(cellnum);
-        if (cell == null) {
-            cell = row.createCell(cellnum);
-        }
-        //水平居中
-        cell.getCellStyle().setAlignment(HorizontalAlignment.LEFT);
-
-        if (object instanceof Double) {
-            double temp = (double) object;
-            String str = String.valueOf(temp);
-            cell.setCellValue(removeZero(str));
-        } else if (object instanceof Float) {
-            double temp = getDouble((float) object, 2);
-            String str = String.valueOf(temp);
-            cell.setCellValue(removeZero(str));
-        } else if (object instanceof Integer) {
-            cell.setCellValue((int) object);
-        } else if (object instanceof BigDecimal) {
-            double temp = ((BigDecimal) object).doubleValue();
-            String str = String.valueOf(temp);
-            cell.setCellValue(removeZero(str));
-        } else if (object instanceof Long) {
-            cell.setCellValue((long) object);
-        } else if (object instanceof Date) {
-            cell.setCellValue((Date) object);
-        } else if (object instanceof Boolean) {
-            cell.setCellValue((boolean) object);
-        } else if (object instanceof Character) {
-            cell.setCellValue((Character) object);
-        } else if (object instanceof String) {
-            String str = (String) object;
-            cell.setCellValue(removeZero(str));
-        } else if (object instanceof LocalDate) {
-            cell.setCellValue(((LocalDate) object).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-        } else if (object instanceof LocalDateTime) {
-            cell.setCellValue(((LocalDateTime) object).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        } else {
-            log.error("未知的数据类型！");
+        if (rowBuffer != null) {
+            rowBuffer.put(rownum, cellnum, object, HorizontalAlignment.LEFT, RowBuffer.INHERIT_WRAP, null);
+            return this;
         }
+        Cell cell = getOrCreateCell(rownum, cellnum);
+        //水平左对齐
+        writeCell(cell, object, HorizontalAlignment.LEFT, cell.getCellStyle().getWrapText(), null);
         return this;
     }
 
-    public PoiExcelUtil setBlank(int rownum, int cellnum) {
-        Row row = this.sheet.getRow(rownum);
-        if (row == null) {
-            row = this.sheet.createRow(rownum);
+    /**
+     * @param format 数据格式，null时使用写入器的默认格式
+     */
+    private void writeCell(Cell cell, Object object, HorizontalAlignment alignment, boolean wrap, String format) {
+        CellWriters.Entry writer = CellWriters.lookup(object.getClass());
+        if (writer == null) {
+            // 未写入的值不设置样式，也不参与列宽估算
+            log.error("未知的数据类型！{}", object.getClass().getName());
+            return;
         }
-        Cell cell = row.getCell(cellnum);
-        if (cell == null) {
-            cell = row.createCell(cellnum);
+        writer.write(cell, object);
+        if (format == null) {
+            format = writer.format;
+        }
+        if (autoWidth) {
+            widths.record(cell.getColumnIndex(), object, format);
+        }
+        CellStyle base = cell.getCellStyle();
+        if (template != null && (isTemplateHead(cell.getRowIndex()) || template.style(cell.getColumnIndex()) != null)) {
+            // 表头和模板列沿用模板样式，只在模板没有指定数据格式时补上
+            if (format != null && base.getDataFormat() == 0) {
+                cell.setCellStyle(styles.get(base, base.getAlignment(), base.getWrapText(), dataFormat(format)));
+            }
+            return;
+        }
+        short dataFormat = format == null ? base.getDataFormat() : dataFormat(format);
+        cell.setCellStyle(styles.get(base, alignment, wrap, dataFormat));
+    }
+
+    private short dataFormat(String format) {
+        Short index = dataFormats.get(format);
+        if (index == null) {
+            // 并行写入多个sheet时共用样式表，与样式注册表使用同一把锁
+            synchronized (styles) {
+                index = workbook.createDataFormat().getFormat(format);
+            }
+            dataFormats.put(format, index);
+        }
+        return index;
+    }
+
+    public PoiExcelUtil setBlank(int rownum, int cellnum) {
+        if (rowBuffer != null) {
+            rowBuffer.put(rownum, cellnum, RowBuffer.BLANK, null, RowBuffer.NO_WRAP, null);
+            return this;
         }
+        Cell cell = getOrCreateCell(rownum, cellnum);
         cell.setBlank();
         return this;
     }
 
     public PoiExcelUtil setRowHeight(short height) {
-        Row row = this.sheet.getRow(this.getCurrentRowNum());
-        if (row == null) {
-            row = this.sheet.createRow(this.getCurrentRowNum());
+        if (rowBuffer != null) {
+            rowBuffer.setHeight(this.getCurrentRowNum(), height);
+            return this;
         }
+        Row row = getOrCreateRow(this.getCurrentRowNum());
         row.setHeight(height);
         return this;
     }
 
     public int getRowNum() {
+        if (rowBuffer != null) {
+            return rowBuffer.count();
+        }
         return sheet.getPhysicalNumberOfRows();
     }
 
+    @Override
     public PoiExcelUtil nextRow() {
         this.currentRowNum++;
         return this;
     }
 
     public boolean hasNextRow() {
+        if (rowBuffer != null) {
+            return rowBuffer.isCreated(currentRowNum + 1);
+        }
         return this.sheet.getRow(currentRowNum + 1) != null;
     }
 
     public PoiExcelUtil nextSheet() {
-        this.sheet = workbook.getSheetAt(1);
+        if (rowBuffer != null || template != null) {
+            throw new UnsupportedOperationException("缓冲行和模板填充模式只支持单个sheet");
+        }
+        merges.register(sheet);
+        widths.apply(sheet);
+        this.sheet = workbook.getSheetAt(workbook.getSheetIndex(sheet) + 1);
+        this.setCurrentRowNum(0);
+        return this;
+    }
+
+    /**
+     * 切换到指定名称的sheet，不存在时创建，当前行回到第一行
+     */
+    public PoiExcelUtil sheet(String name) {
+        if (rowBuffer != null || template != null) {
+            throw new UnsupportedOperationException("缓冲行和模板填充模式只支持单个sheet");
+        }
+        merges.register(sheet);
+        widths.apply(sheet);
+        Sheet target = workbook.getSheet(name);
+        this.sheet = target != null ? target : workbook.createSheet(name);
         this.setCurrentRowNum(0);
         return this;
     }
 
+    /**
+     * 并行生成多个sheet，每个sheet由独立的任务在ForkJoinPool中填充
+     *
+     * @param windowSize 每个sheet内存中保留的行数
+     */
+    public static MultiSheetBuilder newMultiSheetExcel(int windowSize) {
+        return new MultiSheetBuilder(newStreamingExcel(windowSize));
+    }
+
+    /**
+     * 同一工作簿上另一个sheet的写入视图，共用样式注册表，合并区域和列宽各自独立
+     */
+    PoiExcelUtil view(Sheet target) {
+        return new PoiExcelUtil(this, target);
+    }
+
+    /**
+     * 结束视图的写入，在填充任务线程中调用
+     */
+    void finishView() {
+        finish();
+    }
+
     /**
      * 向下跨越n行，输入1等于不传参
      *
      * @param num
      * @return
      */
+    @Override
     public PoiExcelUtil nextRow(int num) {
         this.currentRowNum += num;
         return this;
     }
 
     /**
-     * 调用该方法后，主方法不要return或者return null，否则后端会报错：
-     * InvalidMimeTypeException: Invalid mime type "bin; charset=UTF-8": does not contain '/'
+     * 调用该方法后，主方法不要return或者return null，响应体已经写出
      *
      * @param fileName
      * @param response
      * @return
      */
+    @Override
     public HttpServletResponse export(String fileName, HttpServletResponse response) {
         //设置文件名
-        response.setContentType("bin");
-        response.setHeader("Content-Disposition", "attachment;filename=" + URLUtil.encode(fileName) + ".xlsx");
+        setDownloadHeader(fileName, response);
         //下载输出流
         try {
+            finish();
             workbook.write(response.getOutputStream());
             workbook.close();
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            dispose();
         }
         return response;
     }
 
+    /**
+     * 分页拉取数据并边渲染边输出到响应流，不在内存中构建工作簿
+     * 渲染当前页时后台线程已在拉取下一页；页码从1开始，返回空列表或null表示结束
+     * 拉取或写出失败时异常继续抛出，已输出的部分不会补全为合法文件
+     * 调用该方法后，主方法不要return或者return null
+     *
+     * @param fileName     文件名（不含后缀）
+     * @param response     响应
+     * @param clazz        {@link ExcelColumn} 标注的bean类型
+     * @param pageSupplier 页码 -> 该页数据
+     */
+    public static <T> void exportPaged(String fileName, HttpServletResponse response, Class<T> clazz,
+                                       IntFunction<List<T>> pageSupplier) throws IOException {
+        setDownloadHeader(fileName, response);
+        ExcelBeanMeta.Column[] columns = ExcelBeanMeta.of(clazz).columns();
+        ExecutorService fetcher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "excel-page-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(response.getOutputStream())) {
+            try {
+                for (ExcelBeanMeta.Column column : columns) {
+                    writer.setWidth(column.index, column.width > 0 ? column.width : column.title.length() * 3);
+                    writer.setStorage(column.index, column.storage);
+                }
+                writer.nextRow();
+                for (ExcelBeanMeta.Column column : columns) {
+                    writer.write(column.index, column.title);
+                }
+                writer.flush();
+                response.flushBuffer();
+
+                int pageNo = 1;
+                Future<List<T>> next = fetcher.submit(() -> pageSupplier.apply(1));
+                while (true) {
+                    List<T> page = await(next);
+                    if (page == null || page.isEmpty()) {
+                        break;
+                    }
+                    int following = ++pageNo;
+                    next = fetcher.submit(() -> pageSupplier.apply(following));
+                    for (T bean : page) {
+                        writer.nextRow();
+                        if (bean == null) {
+                            continue;
+                        }
+                        for (ExcelBeanMeta.Column column : columns) {
+                            writer.write(column.index, column.get(bean), column.format);
+                        }
+                    }
+                    writer.flush();
+                    response.flushBuffer();
+                }
+            } catch (Throwable e) {
+                // 不补全文件，客户端得到无效的xlsx，异常继续抛出
+                writer.abort();
+                throw e;
+            }
+        } finally {
+            fetcher.shutdownNow();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("导出被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void setDownloadHeader(String fileName, HttpServletResponse response) {
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader("Content-Disposition", "attachment;filename=" + URLUtil.encode(fileName) + ".xlsx");
+    }
+
     /**
      * 导出到本地目录，不能导出到C盘根目录下，必须要有2个层级目录
      *
      * @param filePath
-     * @return
+     * @return 导出的文件，写入失败时返回null并删除写了一半的文件
      */
+    @Override
     public File export(String filePath) {
         filePath += ".xlsx";
         File file = new File(filePath);
         if (!file.getParentFile().exists()) {
             file.getParentFile().mkdirs();
         }
-        if (!file.exists()) {
-            try {
-                boolean success = file.createNewFile();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-        FileOutputStream fos = null;
+        FileChannel channel;
         try {
-            fos = new FileOutputStream(filePath);
-        } catch (FileNotFoundException e) {
+            channel = ExcelFiles.openForWrite(file.toPath());
+        } catch (IOException e) {
             e.printStackTrace();
+            dispose();
             return null;
         }
-        //下载输出流
-        try {
-            workbook.write(fos);
-        } catch (IOException e) {
+        boolean success = false;
+        //经文件通道写出，写完只落盘一次
+        try (OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 256 * 1024)) {
+            finish();
+            workbook.write(out);
+            out.flush();
+            channel.force(true);
+            success = true;
+        } catch (IOException | POIXMLException | OpenXML4JRuntimeException e) {
+            // POI 保存时的IO错误包装为运行时异常
             e.printStackTrace();
         } finally {
             try {
-                fos.close();
                 workbook.close();
             } catch (IOException e) {
                 e.printStackTrace();
             }
+            dispose();
+        }
+        if (!success) {
+            if (file.exists() && !file.delete()) {
+                log.warn("删除导出失败的文件失败：{}", file);
+            }
+            return null;
         }
         return file;
     }
 
-    private static String getValue(Cell cell) {
+    static String getValue(Cell cell) {
         if (cell == null) {
             return null;
         }
         String returnValue = null;
         switch (cell.getCellType()) {
             case NUMERIC:   //数字
-                Double doubleValue = cell.getNumericCellValue();
                 // 格式化科学计数法，取一位整数
-                DecimalFormat df = new DecimalFormat("0");
-                returnValue = df.format(doubleValue);
+                returnValue = ExcelCells.formatInteger(cell.getNumericCellValue());
                 break;
             case STRING:    //字符串
                 returnValue = cell.getStringCellValue();
@@ -447,32 +1015,17 @@ public class PoiExcelUtil {
             case NUMERIC:   //数字
                 short format = cell.getCellStyle().getDataFormat();
                 if (DateUtil.isCellDateFormatted(cell)) {
-                    SimpleDateFormat sdf = null;
-//                    System.out.println("cell.getCellStyle().getDataFormat()=" + cell.getCellStyle().getDataFormat());
+                    LocalDateTime date = ExcelCells.toLocalDateTime(cell);
                     if (format == 20 || format == 32) {
-                        sdf = new SimpleDateFormat("HH:mm");
+                        returnValue = date.format(ExcelCells.TIME_FORMATTER);
                     } else if (format == 14 || format == 31 || format == 57 || format == 58) {
                         // 处理自定义日期格式：m月d日(通过判断单元格的格式id解决，id的值是58)
-                        sdf = new SimpleDateFormat("yyyy-MM-dd");
-                        double value = cell.getNumericCellValue();
-                        Date date = DateUtil
-                                .getJavaDate(value);
-                        returnValue = sdf.format(date);
+                        returnValue = date.format(CellWriters.DATE_FORMATTER);
                     } else {// 日期
-                        sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                    }
-                    try {
-                        returnValue = sdf.format(cell.getDateCellValue());
-                    } catch (Exception e) {
-                        try {
-                            throw new Exception("exception on get date data !".concat(e.toString()));
-                        } catch (Exception e1) {
-                            e1.printStackTrace();
-                        }
+                        returnValue = date.format(CellWriters.DATE_TIME_FORMATTER);
                     }
                 } else {
-                    BigDecimal bd = new BigDecimal(cell.getNumericCellValue());
-                    returnValue = bd.toPlainString();// 数值 这种用BigDecimal包装再获取plainString，可以防止获取到科学计数值
+                    returnValue = ExcelCells.formatPlain(cell.getNumericCellValue());// 数值 取plainString，可以防止获取到科学计数值
                 }
                 break;
             case STRING:    //字符串
@@ -514,15 +1067,9 @@ public class PoiExcelUtil {
      * @throws IOException IOException
      */
     public static void writeToLocal(String fileName, InputStream input) throws IOException {
-        int index;
-        byte[] bytes = new byte[1024];
-        FileOutputStream downloadFile = new FileOutputStream(fileName);
-        while ((index = input.read(bytes)) != -1) {
-            downloadFile.write(bytes, 0, index);
-            downloadFile.flush();
+        try (InputStream in = input) {
+            ExcelFiles.spool(in, Paths.get(fileName));
         }
-        input.close();
-        downloadFile.close();
     }
 
     /**
@@ -533,6 +1080,7 @@ public class PoiExcelUtil {
      * @return
      */
     public PoiExcelUtil setWidth(int index, int count) {
+        widths.pin(index);
         this.sheet.setColumnWidth(index, count * 256);
         return this;
     }
@@ -544,6 +1092,7 @@ public class PoiExcelUtil {
      */
     public PoiExcelUtil setWidth(int... counts) {
         for (int i = 0; i < counts.length; i++) {
+            widths.pin(i);
             this.sheet.setColumnWidth(i, counts[i] * 256);
         }
         return this;
@@ -559,8 +1108,12 @@ public class PoiExcelUtil {
      * @return
      */
     public boolean merge(int sX, int eX, int sY, int eY) {
-        CellRangeAddress region = new CellRangeAddress(sX, eX, sY, eY);
-        sheet.addMergedRegion(region);
+        if (rowBuffer != null) {
+            MergeCollector.check(sX, eX, sY, eY);
+            rowBuffer.merge(sX, eX, sY, eY);
+            return true;
+        }
+        merges.add(sX, eX, sY, eY);
         return true;
     }
 
@@ -576,8 +1129,7 @@ public class PoiExcelUtil {
             return this;
         }
         for (int y : ys) {
-            CellRangeAddress region = new CellRangeAddress(currentRowNum, currentRowNum + height - 1, y, y);
-            sheet.addMergedRegion(region);
+            merge(currentRowNum, currentRowNum + height - 1, y, y);
         }
         return this;
     }
@@ -594,15 +1146,144 @@ public class PoiExcelUtil {
      * 指定index插入行（本质上是将所有其他行下移，再插入到当前行）
      */
     public PoiExcelUtil insertRows(int index) {
+        if (isStreaming()) {
+            throw new UnsupportedOperationException("流式写入模式不支持insertRows");
+        }
+        if (rowBuffer != null) {
+            rowBuffer.insert(index);
+            return this;
+        }
         if (sheet.getRow(index) != null) {
             int lastRowNo = sheet.getLastRowNum();
             sheet.shiftRows(index, lastRowNo, 1);
+            merges.shift(index, lastRowNo, 1);
         }
         sheet.createRow(index);
         return this;
     }
 
 
+    /**
+     * 是否为流式写入模式
+     */
+    public boolean isStreaming() {
+        return workbook instanceof SXSSFWorkbook;
+    }
+
+    private Row getOrCreateRow(int rownum) {
+        if (isTemplateHead(rownum)) {
+            return template.headRow(rownum, true);
+        }
+        Row row = this.sheet.getRow(rownum);
+        if (row == null) {
+            checkWindow(rownum);
+            row = this.sheet.createRow(rownum);
+            if (template != null) {
+                template.apply(row);
+            }
+        }
+        return row;
+    }
+
+    private Cell getCell(int rownum, int cellnum) {
+        Row row;
+        if (isTemplateHead(rownum)) {
+            row = template.headRow(rownum, false);
+        } else {
+            checkWindow(rownum);
+            row = this.sheet.getRow(rownum);
+        }
+        return row == null ? null : row.getCell(cellnum);
+    }
+
+    /**
+     * 模板填充模式下标记行以上的表头行，保留在模板sheet中
+     */
+    private boolean isTemplateHead(int rownum) {
+        return template != null && rownum < template.getMarkerRow();
+    }
+
+    private Cell getOrCreateCell(int rownum, int cellnum) {
+        Row row = getOrCreateRow(rownum);
+        Cell cell = row.getCell(cellnum);
+        if (cell == null) {
+            cell = row.createCell(cellnum);
+        }
+        return cell;
+    }
+
+    /**
+     * 流式写入模式下，已刷出到临时文件的行不能再访问
+     */
+    private void checkWindow(int rownum) {
+        if (rowBuffer != null) {
+            throw new UnsupportedOperationException("缓冲行模式下导出前不能读取单元格");
+        }
+        if (isStreaming() && rownum <= ((SXSSFSheet) sheet).getLastFlushedRowNum()) {
+            throw new IllegalStateException("流式写入模式下第" + rownum + "行已刷出窗口，不能再读写");
+        }
+    }
+
+    /**
+     * 导出前完成延迟的布局：缓冲行、合并区域、列宽
+     */
+    private void finish() {
+        layoutRows();
+        merges.register(sheet);
+        widths.apply(sheet);
+    }
+
+    /**
+     * 缓冲行模式下按逻辑顺序一次生成所有物理行，合并区域交给收集器
+     */
+    private void layoutRows() {
+        if (rowBuffer == null) {
+            return;
+        }
+        RowBuffer buffer = rowBuffer;
+        rowBuffer = null;
+        buffer.assignPositions();
+        List<RowBuffer.BufferedRow> rows = buffer.rows();
+        for (int i = 0; i < rows.size(); i++) {
+            RowBuffer.BufferedRow bufferedRow = rows.get(i);
+            if (bufferedRow == null || !bufferedRow.created) {
+                continue;
+            }
+            Row row = sheet.createRow(i);
+            if (bufferedRow.height >= 0) {
+                row.setHeight(bufferedRow.height);
+            }
+            Object[] values = bufferedRow.values;
+            for (int col = 0; col < values.length; col++) {
+                Object value = values[col];
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(col);
+                if (value == RowBuffer.BLANK) {
+                    cell.setBlank();
+                    continue;
+                }
+                byte wrap = bufferedRow.wraps[col];
+                writeCell(cell, value, bufferedRow.alignments[col],
+                        wrap == RowBuffer.INHERIT_WRAP ? cell.getCellStyle().getWrapText() : wrap == RowBuffer.WRAP,
+                        bufferedRow.formats[col]);
+            }
+        }
+        for (RowBuffer.Merge merge : buffer.merges()) {
+            merges.add(merge.firstRow(), merge.lastRow(), merge.firstCol, merge.lastCol);
+        }
+    }
+
+    /**
+     * 删除流式写入产生的临时文件
+     */
+    void dispose() {
+        if (isStreaming()) {
+            ((SXSSFWorkbook) workbook).dispose();
+        }
+    }
+
     private void init() {
         // 公式自动计算
         sheet.setForceFormulaRecalculation(true);
@@ -612,6 +1293,7 @@ public class PoiExcelUtil {
         cellStyle.setAlignment(HorizontalAlignment.CENTER);
         // 竖直居中
         cellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+        styles = new CellStyleRegistry(workbook);
         code = 200;
     }
 
@@ -648,4 +1330,22 @@ public class PoiExcelUtil {
         }
         return str;
     }
+
+    /**
+     * readAllBeans 默认使用的线程池，首次使用时创建
+     * 解析包含阻塞的文件读取，不放在 ForkJoinPool.commonPool() 中，避免拖慢全JVM的并行流和 CompletableFuture；
+     * 并行度不超过4，同时导入多个文件时排队执行
+     */
+    private static final class ReadPool {
+
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(Math.min(Runtime.getRuntime().availableProcessors(), 4), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("excel-read-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        private ReadPool() {
+        }
+    }
 }
@@ -0,0 +1,256 @@
+package util;
+
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 缓冲行模式的逻辑行布局
+ * 写入、插入行、合并只记录在轻量的行对象上，导出时一次性按顺序生成物理行，
+ * 插入行只移动行引用，不再逐行 shiftRows；合并区域锚定在起始行对象上，随插入一起移动
+ * 行引用按块存放（每块最多 {@link #CHUNK_SIZE} 行），插入只移动所在块内的引用，与总行数无关
+ */
+class RowBuffer {
+
+    /**
+     * setBlank 写入的占位值
+     */
+    static final Object BLANK = new Object();
+
+    static final byte NO_WRAP = 0;
+
+    static final byte WRAP = 1;
+
+    /**
+     * 沿用单元格原有的换行设置（writeLeft）
+     */
+    static final byte INHERIT_WRAP = 2;
+
+    static final int CHUNK_SIZE = 256;
+
+    /**
+     * 逻辑行按块存放，中间行号为占位null
+     */
+    private final List<List<BufferedRow>> chunks = new ArrayList<>();
+
+    private int size;
+
+    /**
+     * 最近定位到的块及其起始行号，顺序写入时不必从头查找
+     */
+    private int lastChunk;
+
+    private int lastStart;
+
+    private final List<Merge> merges = new ArrayList<>();
+
+    private int count;
+
+    /**
+     * 获取逻辑行，不存在时创建占位行（占位行不会生成物理行）
+     */
+    BufferedRow row(int rownum) {
+        grow(rownum + 1);
+        List<BufferedRow> chunk = chunk(rownum);
+        int offset = rownum - lastStart;
+        BufferedRow row = chunk.get(offset);
+        if (row == null) {
+            row = new BufferedRow();
+            chunk.set(offset, row);
+        }
+        return row;
+    }
+
+    void put(int rownum, int cellnum, Object value, HorizontalAlignment alignment, byte wrap, String format) {
+        BufferedRow row = row(rownum);
+        create(row);
+        row.put(cellnum, value, alignment, wrap, format);
+    }
+
+    void setHeight(int rownum, short height) {
+        BufferedRow row = row(rownum);
+        create(row);
+        row.height = height;
+    }
+
+    /**
+     * 与 insertRows 原语义一致：指定行已存在时其后所有行下移一行，再在该位置创建空行
+     */
+    void insert(int index) {
+        if (isCreated(index)) {
+            BufferedRow row = new BufferedRow();
+            add(index, row);
+            create(row);
+        } else {
+            create(row(index));
+        }
+    }
+
+    /**
+     * 记录合并区域，起始行锚定在行对象上
+     */
+    void merge(int firstRow, int lastRow, int firstCol, int lastCol) {
+        merges.add(new Merge(row(firstRow), lastRow - firstRow + 1, firstCol, lastCol));
+    }
+
+    boolean isCreated(int rownum) {
+        if (rownum < 0 || rownum >= size) {
+            return false;
+        }
+        BufferedRow row = chunk(rownum).get(rownum - lastStart);
+        return row != null && row.created;
+    }
+
+    /**
+     * 物理行数
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * 按最终行号排列的所有逻辑行（占位为null）
+     */
+    List<BufferedRow> rows() {
+        List<BufferedRow> rows = new ArrayList<>(size);
+        for (List<BufferedRow> chunk : chunks) {
+            rows.addAll(chunk);
+        }
+        return rows;
+    }
+
+    List<Merge> merges() {
+        return merges;
+    }
+
+    /**
+     * 计算每个逻辑行的最终行号，合并区域按该行号换算
+     */
+    void assignPositions() {
+        int position = 0;
+        for (List<BufferedRow> chunk : chunks) {
+            for (BufferedRow row : chunk) {
+                if (row != null) {
+                    row.position = position;
+                }
+                position++;
+            }
+        }
+    }
+
+    /**
+     * 末尾补占位行直到共有 length 行
+     */
+    private void grow(int length) {
+        while (size < length) {
+            List<BufferedRow> last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (last == null || last.size() >= CHUNK_SIZE) {
+                last = new ArrayList<>(CHUNK_SIZE);
+                chunks.add(last);
+            }
+            int n = Math.min(length - size, CHUNK_SIZE - last.size());
+            for (int i = 0; i < n; i++) {
+                last.add(null);
+            }
+            size += n;
+        }
+    }
+
+    /**
+     * 定位 rownum 所在的块，同时更新 lastChunk/lastStart
+     */
+    private List<BufferedRow> chunk(int rownum) {
+        if (rownum < lastStart) {
+            lastChunk = 0;
+            lastStart = 0;
+        }
+        while (rownum >= lastStart + chunks.get(lastChunk).size()) {
+            lastStart += chunks.get(lastChunk).size();
+            lastChunk++;
+        }
+        return chunks.get(lastChunk);
+    }
+
+    /**
+     * 在 index 处插入行，块过大时拆成两半，后续块的起始行号自然后移
+     */
+    private void add(int index, BufferedRow row) {
+        List<BufferedRow> chunk = chunk(index);
+        chunk.add(index - lastStart, row);
+        size++;
+        if (chunk.size() >= CHUNK_SIZE * 2) {
+            List<BufferedRow> tail = new ArrayList<>(chunk.subList(CHUNK_SIZE, chunk.size()));
+            chunk.subList(CHUNK_SIZE, chunk.size()).clear();
+            chunks.add(lastChunk + 1, tail);
+        }
+    }
+
+    private void create(BufferedRow row) {
+        if (!row.created) {
+            row.created = true;
+            count++;
+        }
+    }
+
+    static final class BufferedRow {
+
+        boolean created;
+
+        short height = -1;
+
+        int position;
+
+        Object[] values = new Object[0];
+
+        HorizontalAlignment[] alignments = new HorizontalAlignment[0];
+
+        byte[] wraps = new byte[0];
+
+        String[] formats = new String[0];
+
+        private void put(int cellnum, Object value, HorizontalAlignment alignment, byte wrap, String format) {
+            if (cellnum >= values.length) {
+                int length = Math.max(cellnum + 1, values.length * 2);
+                values = Arrays.copyOf(values, length);
+                alignments = Arrays.copyOf(alignments, length);
+                wraps = Arrays.copyOf(wraps, length);
+                formats = Arrays.copyOf(formats, length);
+            }
+            if (wrap == INHERIT_WRAP && values[cellnum] != null) {
+                wrap = wraps[cellnum];
+            }
+            values[cellnum] = value;
+            alignments[cellnum] = alignment;
+            wraps[cellnum] = wrap;
+            formats[cellnum] = format;
+        }
+    }
+
+    static final class Merge {
+
+        final BufferedRow start;
+
+        final int height;
+
+        final int firstCol;
+
+        final int lastCol;
+
+        private Merge(BufferedRow start, int height, int firstCol, int lastCol) {
+            this.start = start;
+            this.height = height;
+            this.firstCol = firstCol;
+            this.lastCol = lastCol;
+        }
+
+        int firstRow() {
+            return start.position;
+        }
+
+        int lastRow() {
+            return start.position + height - 1;
+        }
+    }
+}
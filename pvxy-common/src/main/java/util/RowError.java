@@ -0,0 +1,30 @@
+package util;
+
+import lombok.Getter;
+
+/**
+ * 导入校验错误，行号、列号从1开始，与Excel中看到的一致
+ */
+@Getter
+public class RowError {
+
+    private final int row;
+
+    private final int column;
+
+    private final String title;
+
+    private final String message;
+
+    RowError(int row, int column, String title, String message) {
+        this.row = row;
+        this.column = column;
+        this.title = title;
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "第" + row + "行第" + column + "列[" + title + "]" + message;
+    }
+}
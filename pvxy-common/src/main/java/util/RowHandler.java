@@ -0,0 +1,16 @@
+package util;
+
+/**
+ * 流式读取Excel时的行回调
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    /**
+     * 处理一行数据，row 对象在行与行之间复用，不要在回调外持有
+     *
+     * @param row 当前行
+     * @return 是否继续读取，返回false立即停止解析
+     */
+    boolean handle(RowView row);
+}
@@ -0,0 +1,432 @@
+package util;
+
+import org.springframework.web.multipart.MultipartFile;
+import vo.R;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 导入行校验
+ * 按列声明规则后编译为按列号索引的规则数组，可重复使用；读取时逐行校验，
+ * 校验通过的行交给下游回调，错误收集到有上限的列表，超出上限的错误被丢弃时立即停止解析，
+ * 最后用一个 {@link R} 返回全部错误；
+ * integer/decimal/range/date 对数值单元格校验原始数值，不受千分位、百分比、日期等显示格式影响
+ * <pre>
+ * RowValidator validator = RowValidator.builder()
+ *         .column(0, "姓名").required().maxLength(20)
+ *         .column(1, "手机号").required().pattern("^1\\d{10}$", "手机号格式错误")
+ *         .column(2, "金额").decimal().range(0, 100000)
+ *         .build();
+ * </pre>
+ */
+public class RowValidator {
+
+    /**
+     * 单条规则，返回错误信息，通过时返回null
+     */
+    @FunctionalInterface
+    public interface Rule {
+
+        String check(String value);
+    }
+
+    /**
+     * 按单元格校验的规则，数值单元格直接使用原始数值
+     */
+    private interface CellRule {
+
+        String check(RowView row, int cellnum);
+    }
+
+    /**
+     * 列号 -> 该列的规则，没有规则的列为null
+     */
+    private final CellRule[][] rules;
+
+    private final boolean[] required;
+
+    private final String[] titles;
+
+    private final int headRows;
+
+    private final int maxErrors;
+
+    private RowValidator(Builder builder) {
+        int columns = 0;
+        for (ColumnBuilder column : builder.columns) {
+            columns = Math.max(columns, column.index + 1);
+        }
+        this.rules = new CellRule[columns][];
+        this.required = new boolean[columns];
+        this.titles = new String[columns];
+        for (ColumnBuilder column : builder.columns) {
+            rules[column.index] = column.rules.toArray(new CellRule[0]);
+            required[column.index] = column.required;
+            titles[column.index] = column.title;
+        }
+        this.headRows = builder.headRows;
+        this.maxErrors = builder.maxErrors;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 开始一次校验，返回的 Validation 作为读取回调使用
+     *
+     * @param next 校验通过的行的回调，返回false停止读取
+     */
+    public Validation begin(RowHandler next) {
+        return new Validation(next);
+    }
+
+    /**
+     * 流式读取上传文件的第一个sheet并校验
+     */
+    public Validation validate(MultipartFile file, RowHandler next) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return validate(in, next);
+        }
+    }
+
+    /**
+     * 流式读取输入流的第一个sheet并校验，调用方负责关闭输入流
+     */
+    public Validation validate(InputStream in, RowHandler next) throws IOException {
+        Validation validation = begin(next);
+        PoiExcelUtil.streamRows(in, validation);
+        return validation;
+    }
+
+    /**
+     * 通过解析缓存读取并校验，同一文件重复上传时不再解析
+     */
+    public Validation validate(UploadParseCache cache, MultipartFile file, RowHandler next) throws IOException {
+        Validation validation = begin(next);
+        cache.streamRows(file, validation);
+        return validation;
+    }
+
+    /**
+     * 一次校验的状态，非线程安全
+     */
+    public final class Validation implements RowHandler {
+
+        private final RowHandler next;
+
+        private final List<RowError> errors = new ArrayList<>();
+
+        private boolean truncated;
+
+        private boolean stopped;
+
+        private int rows;
+
+        private Validation(RowHandler next) {
+            this.next = next;
+        }
+
+        @Override
+        public boolean handle(RowView row) {
+            if (row.getRowNum() < headRows || row.isEmpty()) {
+                return true;
+            }
+            rows++;
+            if (!check(row)) {
+                return !truncated;
+            }
+            if (next != null && !next.handle(row)) {
+                stopped = true;
+                return false;
+            }
+            return true;
+        }
+
+        private boolean check(RowView row) {
+            boolean valid = true;
+            for (int c = 0; c < rules.length; c++) {
+                if (rules[c] == null) {
+                    continue;
+                }
+                String value = row.read(c);
+                String message = null;
+                if (value == null || value.trim().isEmpty()) {
+                    if (required[c]) {
+                        message = "不能为空";
+                    }
+                } else {
+                    for (CellRule rule : rules[c]) {
+                        message = rule.check(row, c);
+                        if (message != null) {
+                            break;
+                        }
+                    }
+                }
+                if (message != null) {
+                    valid = false;
+                    if (errors.size() < maxErrors) {
+                        errors.add(new RowError(row.getRowNum() + 1, c + 1, titles[c], message));
+                    } else {
+                        truncated = true;
+                    }
+                }
+            }
+            return valid;
+        }
+
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+
+        public List<RowError> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * 错误超过上限，有错误被丢弃并停止了解析，后续行没有校验
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        /**
+         * 下游回调要求停止读取
+         */
+        public boolean isStopped() {
+            return stopped;
+        }
+
+        /**
+         * 参与校验的数据行数（不含表头和空行）
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * 校验失败的响应，全部错误放在 extra.errors
+         */
+        public <E> R<E> toR() {
+            String msg = truncated
+                    ? String.format("导入数据校验失败，错误超过%d处，请修改后重新上传", maxErrors)
+                    : String.format("导入数据校验失败，共%d处错误", errors.size());
+            R<E> r = R.validFail(msg);
+            return r.put("errors", errors).put("truncated", truncated);
+        }
+    }
+
+    public static class Builder {
+
+        private final List<ColumnBuilder> columns = new ArrayList<>();
+
+        private int headRows = 1;
+
+        private int maxErrors = 100;
+
+        private Builder() {
+        }
+
+        /**
+         * 表头行数，这些行不校验也不交给下游，默认1
+         */
+        public Builder headRows(int headRows) {
+            this.headRows = headRows;
+            return this;
+        }
+
+        /**
+         * 错误数上限，超出时停止解析，默认100
+         */
+        public Builder maxErrors(int maxErrors) {
+            if (maxErrors <= 0) {
+                throw new IllegalArgumentException("maxErrors必须大于0");
+            }
+            this.maxErrors = maxErrors;
+            return this;
+        }
+
+        /**
+         * 声明一列的规则
+         *
+         * @param index 列号，从0开始
+         * @param title 列名，用于错误信息
+         */
+        public ColumnBuilder column(int index, String title) {
+            for (ColumnBuilder column : columns) {
+                if (column.index == index) {
+                    return column;
+                }
+            }
+            ColumnBuilder column = new ColumnBuilder(this, index, title);
+            columns.add(column);
+            return column;
+        }
+
+        /**
+         * 按 {@link ExcelColumn} 标注声明各列，只有列名，规则另行追加
+         */
+        public Builder columns(Class<?> clazz) {
+            for (ExcelBeanMeta.Column column : ExcelBeanMeta.of(clazz).columns()) {
+                column(column.index, column.title);
+            }
+            return this;
+        }
+
+        public RowValidator build() {
+            return new RowValidator(this);
+        }
+    }
+
+    public static class ColumnBuilder {
+
+        private final Builder parent;
+
+        private final int index;
+
+        private final String title;
+
+        private final List<CellRule> rules = new ArrayList<>();
+
+        private boolean required;
+
+        private ColumnBuilder(Builder parent, int index, String title) {
+            if (index < 0) {
+                throw new IllegalArgumentException("列号不能小于0");
+            }
+            this.parent = parent;
+            this.index = index;
+            this.title = title;
+        }
+
+        /**
+         * 不能为空；其余规则只校验非空值
+         */
+        public ColumnBuilder required() {
+            this.required = true;
+            return this;
+        }
+
+        public ColumnBuilder maxLength(int max) {
+            return rule(value -> value.length() > max ? "长度不能超过" + max : null);
+        }
+
+        public ColumnBuilder pattern(String regex, String message) {
+            Pattern pattern = Pattern.compile(regex);
+            return rule(value -> pattern.matcher(value).matches() ? null : message);
+        }
+
+        /**
+         * 整数；数值单元格按原始数值判断，日期单元格不是整数
+         */
+        public ColumnBuilder integer() {
+            return cell((row, c) -> {
+                if (row.isNumeric(c)) {
+                    double v = row.getNumber(c);
+                    return !row.isDate(c) && v == Math.rint(v) && Math.abs(v) <= Long.MAX_VALUE ? null : "必须是整数";
+                }
+                try {
+                    Long.parseLong(row.read(c).trim());
+                    return null;
+                } catch (NumberFormatException e) {
+                    return "必须是整数";
+                }
+            });
+        }
+
+        public ColumnBuilder decimal() {
+            return cell((row, c) -> number(row, c) == null ? "必须是数字" : null);
+        }
+
+        /**
+         * 数值范围（含边界），非数字时报格式错误；百分比单元格按原始数值比较（12.5% 为 0.125）
+         */
+        public ColumnBuilder range(double min, double max) {
+            return cell((row, c) -> {
+                Double v = number(row, c);
+                if (v == null) {
+                    return "必须是数字";
+                }
+                return v < min || v > max ? "必须在" + format(min) + "到" + format(max) + "之间" : null;
+            });
+        }
+
+        /**
+         * 日期：日期格式的数值单元格，或 {@link ExcelCells#parseDateTime} 能解析的文本，通过校验的值都能用 RowView.readLocalDate 读取
+         */
+        public ColumnBuilder date() {
+            return cell((row, c) -> row.isDate(c) || parseDate(row.read(c).trim()) ? null : "不是有效日期");
+        }
+
+        public ColumnBuilder in(String... values) {
+            Set<String> allowed = new HashSet<>(Arrays.asList(values));
+            String message = "必须是" + String.join("、", values) + "之一";
+            return rule(value -> allowed.contains(value.trim()) ? null : message);
+        }
+
+        public ColumnBuilder check(Predicate<String> predicate, String message) {
+            return rule(value -> predicate.test(value) ? null : message);
+        }
+
+        /**
+         * 自定义规则，校验单元格的显示文本
+         */
+        public ColumnBuilder rule(Rule rule) {
+            return cell((row, c) -> rule.check(row.read(c)));
+        }
+
+        private ColumnBuilder cell(CellRule rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        /**
+         * 切换到另一列
+         */
+        public ColumnBuilder column(int index, String title) {
+            return parent.column(index, title);
+        }
+
+        public RowValidator build() {
+            return parent.build();
+        }
+
+        private static String format(double v) {
+            return v == Math.rint(v) ? Long.toString((long) v) : Double.toString(v);
+        }
+
+        /**
+         * 数值单元格（日期除外）取原始数值，文本按数字解析，不是数字时返回null
+         */
+        private static Double number(RowView row, int c) {
+            if (row.isNumeric(c)) {
+                return row.isDate(c) ? null : row.getNumber(c);
+            }
+            try {
+                return new BigDecimal(row.read(c).trim()).doubleValue();
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static boolean parseDate(String value) {
+            try {
+                ExcelCells.parseDateTime(value);
+                return true;
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+    }
+}
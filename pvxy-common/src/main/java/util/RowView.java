@@ -0,0 +1,201 @@
+package util;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * 流式读取时的单行视图，保存当前行的单元格文本，数值单元格同时保存原始数值
+ * 类型化读取直接使用原始数值，不受单元格显示格式（千分位、百分比、日期格式等）影响
+ */
+public class RowView {
+
+    static final byte TEXT = 0;
+
+    static final byte NUMBER = 1;
+
+    /**
+     * 日期格式的数值单元格
+     */
+    static final byte DATE = 2;
+
+    private int rowNum;
+
+    private String[] values = new String[16];
+
+    private double[] numbers = new double[16];
+
+    private byte[] kinds = new byte[16];
+
+    private int size;
+
+    private boolean date1904;
+
+    /**
+     * 行号，从0开始
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * 单元格数量（最后一个非空单元格的列号 + 1）
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 读取指定列的显示文本，空单元格返回null
+     */
+    public String read(int cellnum) {
+        if (cellnum < 0 || cellnum >= size) {
+            return null;
+        }
+        return values[cellnum];
+    }
+
+    /**
+     * 是否为数值单元格（含日期格式）
+     */
+    public boolean isNumeric(int cellnum) {
+        return kind(cellnum) != TEXT;
+    }
+
+    /**
+     * 是否为日期格式的数值单元格
+     */
+    public boolean isDate(int cellnum) {
+        return kind(cellnum) == DATE;
+    }
+
+    /**
+     * 数值单元格的原始数值，调用前先用 {@link #isNumeric(int)} 判断
+     */
+    public double getNumber(int cellnum) {
+        if (!isNumeric(cellnum)) {
+            throw new IllegalStateException("第" + (cellnum + 1) + "列不是数值单元格");
+        }
+        return numbers[cellnum];
+    }
+
+    public Double readDouble(int cellnum) {
+        if (isNumeric(cellnum)) {
+            return numbers[cellnum];
+        }
+        String text = text(cellnum);
+        return text == null ? null : Double.valueOf(text);
+    }
+
+    /**
+     * 与 {@link ExcelCells#toLong} 一致，数值和文本都必须是整数
+     */
+    public Long readLong(int cellnum) {
+        if (isNumeric(cellnum)) {
+            return BigDecimal.valueOf(numbers[cellnum]).longValueExact();
+        }
+        String text = text(cellnum);
+        return text == null ? null : new BigDecimal(text).longValueExact();
+    }
+
+    public Integer readInteger(int cellnum) {
+        Long value = readLong(cellnum);
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    public BigDecimal readDecimal(int cellnum) {
+        if (isNumeric(cellnum)) {
+            return BigDecimal.valueOf(numbers[cellnum]);
+        }
+        String text = text(cellnum);
+        return text == null ? null : new BigDecimal(text);
+    }
+
+    public Boolean readBoolean(int cellnum) {
+        if (isNumeric(cellnum)) {
+            return numbers[cellnum] != 0;
+        }
+        String text = text(cellnum);
+        return text == null ? null : "true".equalsIgnoreCase(text) || "1".equals(text);
+    }
+
+    /**
+     * 数值单元格按日期序列号换算，文本单元格按 {@link ExcelCells#parseDateTime} 解析
+     */
+    public LocalDateTime readLocalDateTime(int cellnum) {
+        if (isNumeric(cellnum)) {
+            return ExcelCells.toLocalDateTime(numbers[cellnum], date1904);
+        }
+        String text = text(cellnum);
+        if (text == null) {
+            return null;
+        }
+        return ExcelCells.parseDateTime(text);
+    }
+
+    public LocalDate readLocalDate(int cellnum) {
+        LocalDateTime value = readLocalDateTime(cellnum);
+        return value == null ? null : value.toLocalDate();
+    }
+
+    void reset(int rowNum) {
+        Arrays.fill(values, 0, size, null);
+        Arrays.fill(kinds, 0, size, TEXT);
+        this.rowNum = rowNum;
+        this.size = 0;
+    }
+
+    void setDate1904(boolean date1904) {
+        this.date1904 = date1904;
+    }
+
+    boolean isDate1904() {
+        return date1904;
+    }
+
+    void set(int cellnum, String value) {
+        ensure(cellnum);
+        values[cellnum] = value;
+        kinds[cellnum] = TEXT;
+    }
+
+    void setNumber(int cellnum, String value, double number, boolean date) {
+        ensure(cellnum);
+        values[cellnum] = value;
+        numbers[cellnum] = number;
+        kinds[cellnum] = date ? DATE : NUMBER;
+    }
+
+    byte kind(int cellnum) {
+        if (cellnum < 0 || cellnum >= size) {
+            return TEXT;
+        }
+        return kinds[cellnum];
+    }
+
+    private void ensure(int cellnum) {
+        if (cellnum >= values.length) {
+            int length = Math.max(cellnum + 1, values.length * 2);
+            values = Arrays.copyOf(values, length);
+            numbers = Arrays.copyOf(numbers, length);
+            kinds = Arrays.copyOf(kinds, length);
+        }
+        if (cellnum >= size) {
+            size = cellnum + 1;
+        }
+    }
+
+    private String text(int cellnum) {
+        String value = read(cellnum);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+}
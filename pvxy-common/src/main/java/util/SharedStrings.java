@@ -0,0 +1,93 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * 去重的共享字符串表
+ * 以字符串hash为键的开放寻址表（int数组），值为字符串在表中的下标，不为每个字符串创建Map.Entry和Integer
+ */
+class SharedStrings {
+
+    /**
+     * 槽位存 下标+1，0表示空
+     */
+    private int[] slots = new int[1024];
+
+    private int[] hashes = new int[1024];
+
+    private String[] strings = new String[256];
+
+    private int size;
+
+    /**
+     * 单元格引用总次数
+     */
+    private int count;
+
+    /**
+     * 返回字符串的下标，不存在时加入表
+     */
+    int indexOf(String value) {
+        count++;
+        int hash = value.hashCode();
+        int mask = slots.length - 1;
+        int i = mix(hash) & mask;
+        while (slots[i] != 0) {
+            int index = slots[i] - 1;
+            if (hashes[i] == hash && strings[index].equals(value)) {
+                return index;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+        }
+        strings[size] = value;
+        slots[i] = size + 1;
+        hashes[i] = hash;
+        size++;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    /**
+     * 不重复的字符串个数
+     */
+    int size() {
+        return size;
+    }
+
+    int count() {
+        return count;
+    }
+
+    String get(int index) {
+        return strings[index];
+    }
+
+    private void rehash() {
+        int[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new int[oldSlots.length * 2];
+        hashes = new int[oldSlots.length * 2];
+        int mask = slots.length - 1;
+        for (int j = 0; j < oldSlots.length; j++) {
+            if (oldSlots[j] == 0) {
+                continue;
+            }
+            int i = mix(oldHashes[j]) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = oldSlots[j];
+            hashes[i] = oldHashes[j];
+        }
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,179 @@
+package util;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaShifter;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.OperandPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模板填充的样例行
+ * 记录标记行每列的样式、行高和公式，并删除标记行及其下方的行，
+ * 之后生成的每一行都套用样例行：样式直接复用，公式按行号平移；
+ * 标记行以上的表头行仍在模板sheet中，流式sheet访问不到，通过 {@link #headRow(int, boolean)} 读写
+ */
+class SheetTemplate {
+
+    private final XSSFSheet sheet;
+
+    private final XSSFEvaluationWorkbook evaluationWorkbook;
+
+    private final int sheetIndex;
+
+    private final String sheetName;
+
+    /**
+     * 标记行行号，生成的数据从这一行开始
+     */
+    private final int markerRow;
+
+    private final short height;
+
+    private final CellStyle[] styles;
+
+    private final String[] formulas;
+
+    /**
+     * 样例行公式解析后的结果，只解析一次，每行复制后平移
+     */
+    private final Ptg[][] parsed;
+
+    private SheetTemplate(XSSFSheet sheet, Row sample) {
+        this.sheet = sheet;
+        this.evaluationWorkbook = XSSFEvaluationWorkbook.create(sheet.getWorkbook());
+        this.sheetIndex = sheet.getWorkbook().getSheetIndex(sheet);
+        this.sheetName = sheet.getSheetName();
+        this.markerRow = sample.getRowNum();
+        this.height = sample.getHeight();
+        int columns = Math.max(sample.getLastCellNum(), 0);
+        this.styles = new CellStyle[columns];
+        this.formulas = new String[columns];
+        this.parsed = new Ptg[columns][];
+        for (Cell cell : sample) {
+            styles[cell.getColumnIndex()] = cell.getCellStyle();
+            if (cell.getCellType() == CellType.FORMULA) {
+                formulas[cell.getColumnIndex()] = cell.getCellFormula();
+                parsed[cell.getColumnIndex()] = FormulaParser.parse(cell.getCellFormula(), evaluationWorkbook,
+                        FormulaType.CELL, sheetIndex, markerRow);
+            }
+        }
+    }
+
+    /**
+     * 查找内容为 marker 的单元格所在行作为样例行，删除该行及以下的行和合并区域
+     *
+     * @throws IllegalArgumentException 模板中没有标记
+     */
+    static SheetTemplate of(XSSFSheet sheet, String marker) {
+        Row sample = find(sheet, marker);
+        if (sample == null) {
+            throw new IllegalArgumentException("模板中未找到标记: " + marker);
+        }
+        SheetTemplate template = new SheetTemplate(sheet, sample);
+        List<Integer> regions = new ArrayList<>();
+        List<CellRangeAddress> merged = sheet.getMergedRegions();
+        for (int i = 0; i < merged.size(); i++) {
+            if (merged.get(i).getLastRow() >= template.markerRow) {
+                regions.add(i);
+            }
+        }
+        sheet.removeMergedRegions(regions);
+        for (int i = sheet.getLastRowNum(); i >= template.markerRow; i--) {
+            Row row = sheet.getRow(i);
+            if (row != null) {
+                sheet.removeRow(row);
+            }
+        }
+        return template;
+    }
+
+    private static Row find(XSSFSheet sheet, String marker) {
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                if (cell.getCellType() == CellType.STRING && marker.equals(cell.getStringCellValue())) {
+                    return row;
+                }
+            }
+        }
+        return null;
+    }
+
+    int getMarkerRow() {
+        return markerRow;
+    }
+
+    /**
+     * 模板sheet中标记行以上的行
+     *
+     * @param create 行不存在时是否创建
+     */
+    Row headRow(int rownum, boolean create) {
+        Row row = sheet.getRow(rownum);
+        if (row == null && create) {
+            row = sheet.createRow(rownum);
+        }
+        return row;
+    }
+
+    /**
+     * 样例行该列的样式，没有时返回null
+     */
+    CellStyle style(int column) {
+        return column < styles.length ? styles[column] : null;
+    }
+
+    /**
+     * 新建行时套用样例行的行高、样式和公式
+     */
+    void apply(Row row) {
+        row.setHeight(height);
+        for (int column = 0; column < styles.length; column++) {
+            if (styles[column] == null) {
+                continue;
+            }
+            Cell cell = row.createCell(column);
+            cell.setCellStyle(styles[column]);
+            if (formulas[column] != null) {
+                cell.setCellFormula(shift(column, row.getRowNum() - markerRow));
+            }
+        }
+    }
+
+    /**
+     * 与复制行时的处理一致：相对引用平移，绝对引用不变
+     */
+    private String shift(int column, int step) {
+        if (step == 0) {
+            return formulas[column];
+        }
+        Ptg[] ptgs = copy(parsed[column]);
+        FormulaShifter.createForRowCopy(sheetIndex, sheetName, markerRow, markerRow, step, SpreadsheetVersion.EXCEL2007)
+                .adjustFormula(ptgs, sheetIndex);
+        return FormulaRenderer.toFormulaString(evaluationWorkbook, ptgs);
+    }
+
+    /**
+     * 平移只会修改引用类的操作数，复制这些即可，运算符等不可变的直接共用
+     */
+    private static Ptg[] copy(Ptg[] ptgs) {
+        Ptg[] copy = ptgs.clone();
+        for (int i = 0; i < copy.length; i++) {
+            if (copy[i] instanceof OperandPtg) {
+                copy[i] = ((OperandPtg) copy[i]).copy();
+            }
+        }
+        return copy;
+    }
+}
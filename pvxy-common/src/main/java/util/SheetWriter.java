@@ -0,0 +1,52 @@
+package util;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+
+/**
+ * 表格写入的公共接口，xlsx（{@link PoiExcelUtil}）与 csv/tsv（{@link CsvWriter}）共用，
+ * 控制器可以按请求参数切换导出格式，见 {@link PoiExcelUtil#newWriter(String)}
+ */
+public interface SheetWriter {
+
+    int getCurrentRowNum();
+
+    /**
+     * 默认当前行，指定列号 write
+     */
+    SheetWriter write(int cellnum, Object object);
+
+    /**
+     * 默认当前行，从第一列开始write
+     */
+    SheetWriter write(Object... objects);
+
+    SheetWriter write(int rownum, int cellnum, Object object);
+
+    /**
+     * write到第一行，作标题
+     */
+    SheetWriter title(Object... objects);
+
+    SheetWriter nextRow();
+
+    /**
+     * 向下跨越n行，输入1等于不传参
+     */
+    SheetWriter nextRow(int num);
+
+    /**
+     * 输出到响应流，调用该方法后，主方法不要return或者return null
+     *
+     * @param fileName 文件名（不含后缀）
+     */
+    HttpServletResponse export(String fileName, HttpServletResponse response);
+
+    /**
+     * 导出到本地文件
+     *
+     * @param filePath 文件路径（不含后缀）
+     * @return 导出的文件，写入失败时返回null
+     */
+    File export(String filePath);
+}
@@ -0,0 +1,275 @@
+package util;
+
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * 供 {@link XlsxStreamWriter} 调用 {@link CellWriter} 的单元格，只记录写入的值和类型，不属于任何sheet；
+ * 写入器只应调用 setCellValue 系列方法，其余方法不支持
+ */
+final class StreamCell implements Cell {
+
+    private int rowIndex;
+
+    private int columnIndex;
+
+    private CellType type = CellType.BLANK;
+
+    private double number;
+
+    private String string;
+
+    private boolean bool;
+
+    /**
+     * 复用同一个实例写下一个单元格前清空
+     */
+    void reset(int rowIndex, int columnIndex) {
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+        this.type = CellType.BLANK;
+        this.string = null;
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    @Override
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    @Override
+    public CellType getCellType() {
+        return type;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public CellType getCellTypeEnum() {
+        return type;
+    }
+
+    @Override
+    public void setBlank() {
+        type = CellType.BLANK;
+        string = null;
+    }
+
+    @Override
+    public void setCellValue(double value) {
+        type = CellType.NUMERIC;
+        number = value;
+    }
+
+    @Override
+    public void setCellValue(Date value) {
+        if (value == null) {
+            setBlank();
+            return;
+        }
+        setCellValue(DateUtil.getExcelDate(value));
+    }
+
+    @Override
+    public void setCellValue(LocalDateTime value) {
+        if (value == null) {
+            setBlank();
+            return;
+        }
+        setCellValue(DateUtil.getExcelDate(value));
+    }
+
+    @Override
+    public void setCellValue(Calendar value) {
+        if (value == null) {
+            setBlank();
+            return;
+        }
+        setCellValue(DateUtil.getExcelDate(value, false));
+    }
+
+    @Override
+    public void setCellValue(RichTextString value) {
+        setCellValue(value == null ? null : value.getString());
+    }
+
+    @Override
+    public void setCellValue(String value) {
+        if (value == null) {
+            setBlank();
+            return;
+        }
+        type = CellType.STRING;
+        string = value;
+    }
+
+    @Override
+    public void setCellValue(boolean value) {
+        type = CellType.BOOLEAN;
+        bool = value;
+    }
+
+    @Override
+    public void setCellErrorValue(byte value) {
+        type = CellType.ERROR;
+        string = FormulaError.forInt(value).getString();
+    }
+
+    @Override
+    public double getNumericCellValue() {
+        return number;
+    }
+
+    @Override
+    public String getStringCellValue() {
+        return string;
+    }
+
+    @Override
+    public boolean getBooleanCellValue() {
+        return bool;
+    }
+
+    @Override
+    public CellAddress getAddress() {
+        return new CellAddress(rowIndex, columnIndex);
+    }
+
+    @Override
+    public Sheet getSheet() {
+        throw unsupported();
+    }
+
+    @Override
+    public Row getRow() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCellType(CellType cellType) {
+        throw unsupported();
+    }
+
+    @Override
+    public CellType getCachedFormulaResultType() {
+        throw unsupported();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public CellType getCachedFormulaResultTypeEnum() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCellFormula(String formula) throws FormulaParseException, IllegalStateException {
+        throw unsupported();
+    }
+
+    @Override
+    public void removeFormula() throws IllegalStateException {
+        throw unsupported();
+    }
+
+    @Override
+    public String getCellFormula() {
+        throw unsupported();
+    }
+
+    @Override
+    public Date getDateCellValue() {
+        throw unsupported();
+    }
+
+    @Override
+    public LocalDateTime getLocalDateTimeCellValue() {
+        throw unsupported();
+    }
+
+    @Override
+    public RichTextString getRichStringCellValue() {
+        throw unsupported();
+    }
+
+    @Override
+    public byte getErrorCellValue() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCellStyle(CellStyle style) {
+        throw unsupported();
+    }
+
+    @Override
+    public CellStyle getCellStyle() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setAsActiveCell() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCellComment(Comment comment) {
+        throw unsupported();
+    }
+
+    @Override
+    public Comment getCellComment() {
+        throw unsupported();
+    }
+
+    @Override
+    public void removeCellComment() {
+        throw unsupported();
+    }
+
+    @Override
+    public Hyperlink getHyperlink() {
+        throw unsupported();
+    }
+
+    @Override
+    public void setHyperlink(Hyperlink link) {
+        throw unsupported();
+    }
+
+    @Override
+    public void removeHyperlink() {
+        throw unsupported();
+    }
+
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("流式写入只支持设置单元格的值");
+    }
+}
@@ -0,0 +1,22 @@
+package util;
+
+/**
+ * xlsx字符串单元格的存储方式
+ */
+public enum StringStorage {
+
+    /**
+     * 共享字符串表：相同内容只存一份，适合状态、机构、分类等重复值多的列
+     */
+    SHARED,
+
+    /**
+     * 内联字符串：直接写在单元格里，不占用内存，适合编号、备注等几乎不重复的列
+     */
+    INLINE,
+
+    /**
+     * 按列抽样：前若干个值中重复率高的列使用共享字符串，否则改为内联
+     */
+    AUTO
+}
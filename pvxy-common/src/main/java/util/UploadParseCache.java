@@ -0,0 +1,391 @@
+package util;
+
+import cn.hutool.core.util.HexUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 上传文件解析缓存
+ * 以文件内容的SHA-256为键缓存解析结果（列式存储），同一文件修改校验错误后重复上传时跳过POI解析，直接回放行数据；
+ * 内存按LRU淘汰并限制总字节数，指定溢出目录时淘汰的结果写入本地文件，再次命中时加载并删除文件；
+ * 溢出文件同样限制总字节数和存活时间，超出时从最早写入的开始删除，
+ * 创建时清理目录中上次遗留的溢出文件，{@link #close()} 时删除全部溢出文件（Spring容器关闭时自动调用）
+ */
+@Slf4j
+public class UploadParseCache implements Closeable {
+
+    /**
+     * 溢出文件默认存活时间
+     */
+    public static final long DEFAULT_SPILL_TTL = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * 溢出文件名：摘要-sheet下标.bin，写入中的临时文件以同样前缀开头
+     */
+    private static final Pattern SPILL_FILE = Pattern.compile("[0-9a-f]{64}-\\d+.*\\.(bin|tmp)");
+
+    private final long maxBytes;
+
+    private final File spillDir;
+
+    private final long maxSpillBytes;
+
+    private final long spillTtl;
+
+    /**
+     * 访问顺序的LinkedHashMap，头部为最久未使用
+     */
+    private final LinkedHashMap<String, ParsedSheet> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    /**
+     * 溢出文件，按写入顺序排列
+     */
+    private final LinkedHashMap<String, SpillFile> spilled = new LinkedHashMap<>();
+
+    private long spilledBytes;
+
+    /**
+     * @param maxBytes 内存中缓存的解析结果总字节数上限（估算值）
+     */
+    public UploadParseCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * 溢出文件总大小上限为 maxBytes 的4倍，存活时间 {@link #DEFAULT_SPILL_TTL}
+     *
+     * @param maxBytes 内存中缓存的解析结果总字节数上限（估算值）
+     * @param spillDir 淘汰结果的溢出目录，null表示直接丢弃
+     */
+    public UploadParseCache(long maxBytes, File spillDir) {
+        this(maxBytes, spillDir, maxBytes * 4, DEFAULT_SPILL_TTL);
+    }
+
+    /**
+     * @param maxBytes      内存中缓存的解析结果总字节数上限（估算值）
+     * @param spillDir      淘汰结果的溢出目录，null表示直接丢弃
+     * @param maxSpillBytes 溢出文件总字节数上限
+     * @param spillTtl      溢出文件存活毫秒数
+     */
+    public UploadParseCache(long maxBytes, File spillDir, long maxSpillBytes, long spillTtl) {
+        this.maxBytes = maxBytes;
+        this.spillDir = spillDir;
+        this.maxSpillBytes = maxSpillBytes;
+        this.spillTtl = spillTtl;
+        if (spillDir != null) {
+            if (!spillDir.exists()) {
+                spillDir.mkdirs();
+            }
+            deleteSpillFiles();
+        }
+    }
+
+    /**
+     * 逐行读取上传文件的第一个sheet，命中缓存时不再解析
+     *
+     * @param handler 行回调，返回false停止读取
+     * @return 回调处理的行数
+     */
+    public int streamRows(MultipartFile file, RowHandler handler) throws IOException {
+        return streamRows(file, 0, handler);
+    }
+
+    /**
+     * 逐行读取上传文件的指定sheet
+     * 上传文件先经文件通道落盘，再按内存映射计算摘要，未命中时直接解析落盘的文件
+     */
+    public int streamRows(MultipartFile file, int sheetIndex, RowHandler handler) throws IOException {
+        Path tmp = Files.createTempFile("pvxy-upload-", ".xlsx");
+        try {
+            ExcelFiles.spool(file, tmp);
+            String key = key(ExcelFiles.digest(tmp, sha256()), sheetIndex);
+            ParsedSheet sheet = get(key);
+            if (sheet == null) {
+                sheet = parse(tmp.toFile(), sheetIndex);
+                put(key, sheet);
+            }
+            return sheet.replay(handler);
+        } finally {
+            // 映射的缓冲区回收前部分系统上无法删除文件
+            deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * 逐行读取输入流的指定sheet，落盘到临时文件的同时计算摘要
+     *
+     * @param in xlsx输入流，调用方负责关闭
+     */
+    public int streamRows(InputStream in, int sheetIndex, RowHandler handler) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile("pvxy-upload-", ".xlsx");
+        try {
+            ExcelFiles.spool(in, tmp, digest);
+            String key = key(digest.digest(), sheetIndex);
+            ParsedSheet sheet = get(key);
+            if (sheet == null) {
+                sheet = parse(tmp.toFile(), sheetIndex);
+                put(key, sheet);
+            }
+            return sheet.replay(handler);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 内存中缓存的解析结果个数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 内存中缓存的估算字节数
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * 溢出文件的总字节数
+     */
+    public synchronized long spilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     * 清空内存缓存，溢出目录中的文件保留
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * 清空内存缓存并删除所有溢出文件，之后仍可继续使用
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            clear();
+            spilled.clear();
+            spilledBytes = 0;
+        }
+        if (spillDir != null) {
+            deleteSpillFiles();
+        }
+    }
+
+    private ParsedSheet parse(File file, int sheetIndex) throws IOException {
+        ParsedSheet sheet = new ParsedSheet();
+        PoiExcelUtil.streamRows(file, sheetIndex, row -> {
+            sheet.add(row);
+            return true;
+        });
+        sheet.trim();
+        return sheet;
+    }
+
+    private ParsedSheet get(String key) {
+        SpillFile spill;
+        synchronized (this) {
+            ParsedSheet sheet = entries.get(key);
+            if (sheet != null || spillDir == null) {
+                return sheet;
+            }
+            spill = spilled.remove(key);
+            if (spill != null) {
+                spilledBytes -= spill.bytes;
+            }
+        }
+        deleteExpired();
+        if (spill == null || spill.isExpired(spillTtl)) {
+            deleteQuietly(spill == null ? null : spill.file.toPath());
+            return null;
+        }
+        // 加载回内存后删除文件，再次淘汰时重新写入
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spill.file.toPath())))) {
+            ParsedSheet sheet = ParsedSheet.read(in);
+            put(key, sheet);
+            return sheet;
+        } catch (IOException e) {
+            log.warn("读取解析缓存失败：{}", spill.file, e);
+            return null;
+        } finally {
+            deleteQuietly(spill.file.toPath());
+        }
+    }
+
+    private void put(String key, ParsedSheet sheet) {
+        List<Map.Entry<String, ParsedSheet>> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (sheet.bytes() > maxBytes) {
+                evicted.add(new AbstractMap.SimpleEntry<>(key, sheet));
+            } else {
+                ParsedSheet old = entries.put(key, sheet);
+                if (old != null) {
+                    bytes -= old.bytes();
+                }
+                bytes += sheet.bytes();
+                Iterator<Map.Entry<String, ParsedSheet>> it = entries.entrySet().iterator();
+                while (bytes > maxBytes && it.hasNext()) {
+                    Map.Entry<String, ParsedSheet> eldest = it.next();
+                    it.remove();
+                    bytes -= eldest.getValue().bytes();
+                    evicted.add(eldest);
+                }
+            }
+        }
+        if (spillDir != null) {
+            for (Map.Entry<String, ParsedSheet> entry : evicted) {
+                spill(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void spill(String key, ParsedSheet sheet) {
+        synchronized (this) {
+            if (spilled.containsKey(key)) {
+                return;
+            }
+        }
+        File file = spillFile(key);
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(spillDir.toPath(), key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                sheet.write(out);
+            }
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入解析缓存失败：{}", file, e);
+            deleteQuietly(tmp);
+            return;
+        }
+        List<SpillFile> dropped = new ArrayList<>();
+        synchronized (this) {
+            SpillFile spill = new SpillFile(file);
+            SpillFile old = spilled.put(key, spill);
+            if (old != null) {
+                spilledBytes -= old.bytes;
+            }
+            spilledBytes += spill.bytes;
+            Iterator<SpillFile> it = spilled.values().iterator();
+            while (spilledBytes > maxSpillBytes && it.hasNext()) {
+                SpillFile eldest = it.next();
+                it.remove();
+                spilledBytes -= eldest.bytes;
+                dropped.add(eldest);
+            }
+        }
+        for (SpillFile spill : dropped) {
+            deleteQuietly(spill.file.toPath());
+        }
+        deleteExpired();
+    }
+
+    /**
+     * 删除超过存活时间的溢出文件，按写入顺序从头检查
+     */
+    private void deleteExpired() {
+        List<SpillFile> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<SpillFile> it = spilled.values().iterator();
+            while (it.hasNext()) {
+                SpillFile spill = it.next();
+                if (!spill.isExpired(spillTtl)) {
+                    break;
+                }
+                it.remove();
+                spilledBytes -= spill.bytes;
+                expired.add(spill);
+            }
+        }
+        for (SpillFile spill : expired) {
+            deleteQuietly(spill.file.toPath());
+        }
+    }
+
+    /**
+     * 只删除符合溢出文件命名的文件，溢出目录与其他文件共用时不受影响
+     */
+    private void deleteSpillFiles() {
+        File[] files = spillDir.listFiles((dir, name) -> SPILL_FILE.matcher(name).matches());
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            deleteQuietly(file.toPath());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    private File spillFile(String key) {
+        return new File(spillDir, key + ".bin");
+    }
+
+    private static final class SpillFile {
+
+        final File file;
+
+        final long bytes;
+
+        final long time = System.currentTimeMillis();
+
+        SpillFile(File file) {
+            this.file = file;
+            this.bytes = file.length();
+        }
+
+        boolean isExpired(long ttl) {
+            return System.currentTimeMillis() - time > ttl;
+        }
+    }
+
+    private static String key(byte[] digest, int sheetIndex) {
+        return HexUtil.encodeHexStr(digest) + "-" + sheetIndex;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 单sheet的xlsx流式写入器，边写边压缩输出，不在内存中保留任何行
+ * 字符串按列选择共享字符串或内联字符串（见 {@link StringStorage}，默认按列抽样自动选择），
+ * 单元格统一水平居中、自动换行，与 {@link PoiExcelUtil#write(int, int, Object)} 一致；
+ * 行必须按顺序写入，行内单元格按列号递增写入；
+ * 写入失败时调用 {@link #abort()}，不再补全文件，下游得到的是无效的zip而不是看似完整的部分数据
+ */
+@Slf4j
+public class XlsxStreamWriter implements Closeable {
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final int FIRST_CUSTOM_FORMAT = 164;
+
+    /**
+     * 居中换行的默认样式
+     */
+    private static final int DEFAULT_XF = 1;
+
+    /**
+     * AUTO列抽样的值个数，抽样期间按共享字符串写入
+     */
+    private static final int SAMPLE_SIZE = 256;
+
+    /**
+     * 共享字符串表的上限，超过后AUTO列一律内联，避免内存无限增长
+     */
+    private static final int MAX_AUTO_SHARED = 1 << 20;
+
+    private static final String[] COLUMN_NAMES = new String[256];
+
+    static {
+        for (int i = 0; i < COLUMN_NAMES.length; i++) {
+            COLUMN_NAMES[i] = buildColumnName(i);
+        }
+    }
+
+    private final SyncFlushZipOutputStream zip;
+
+    private final Writer writer;
+
+    private final Map<Integer, Integer> widths = new TreeMap<>();
+
+    /**
+     * 数据格式 -> 样式下标
+     */
+    private final Map<String, Integer> formatXfs = new LinkedHashMap<>();
+
+    private final List<String> customFormats = new ArrayList<>();
+
+    private final SharedStrings sharedStrings = new SharedStrings();
+
+    private StringStorage defaultStorage = StringStorage.AUTO;
+
+    /**
+     * 每列的存储方式，AUTO列抽样结束后改为SHARED或INLINE
+     */
+    private StringStorage[] storages = new StringStorage[0];
+
+    /**
+     * AUTO列已抽样的值个数、其中首次出现的值个数
+     */
+    private int[] sampled = new int[0];
+
+    private int[] distinct = new int[0];
+
+    /**
+     * 接收写入器输出的单元格，逐个复用
+     */
+    private final StreamCell cell = new StreamCell();
+
+    private int rowNum = -1;
+
+    private boolean rowOpen;
+
+    private boolean sheetStarted;
+
+    private boolean closed;
+
+    private boolean failed;
+
+    public XlsxStreamWriter(OutputStream out) throws IOException {
+        this.zip = new SyncFlushZipOutputStream(out);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        writePackageParts();
+    }
+
+    /**
+     * 设置列宽，必须在写入第一行之前调用
+     *
+     * @param count 宽度占几个字符
+     */
+    public XlsxStreamWriter setWidth(int index, int count) {
+        if (sheetStarted) {
+            throw new IllegalStateException("列宽必须在写入数据前设置");
+        }
+        widths.put(index, count);
+        return this;
+    }
+
+    /**
+     * 设置未单独指定的列的字符串存储方式，默认 {@link StringStorage#AUTO}
+     */
+    public XlsxStreamWriter setDefaultStorage(StringStorage storage) {
+        this.defaultStorage = storage;
+        return this;
+    }
+
+    /**
+     * 设置某列的字符串存储方式
+     */
+    public XlsxStreamWriter setStorage(int index, StringStorage storage) {
+        ensureColumn(index);
+        storages[index] = storage;
+        sampled[index] = 0;
+        distinct[index] = 0;
+        return this;
+    }
+
+    /**
+     * 开始新的一行，返回行号
+     */
+    public int nextRow() throws IOException {
+        startSheet();
+        endRow();
+        rowNum++;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowNum + 1));
+        writer.write("\">");
+        rowOpen = true;
+        return rowNum;
+    }
+
+    public void write(int cellnum, Object value) throws IOException {
+        write(cellnum, value, null);
+    }
+
+    /**
+     * 写入当前行的单元格，按 {@link CellWriters} 注册的写入器转换值，自定义类型与非流式导出一致
+     *
+     * @param format Excel数据格式，null使用类型默认格式
+     */
+    public void write(int cellnum, Object value, String format) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!rowOpen) {
+            throw new IllegalStateException("请先调用nextRow()");
+        }
+        CellWriters.Entry entry = CellWriters.lookup(value.getClass());
+        if (entry == null) {
+            log.error("未知的数据类型！{}", value.getClass().getName());
+            return;
+        }
+        cell.reset(rowNum, cellnum);
+        entry.write(cell, value);
+        format = format(format, entry.format);
+        switch (cell.getCellType()) {
+            case STRING:
+                writeString(cellnum, cell.getStringCellValue(), format);
+                break;
+            case NUMERIC:
+                writeDouble(cellnum, cell.getNumericCellValue(), format);
+                break;
+            case BOOLEAN:
+                startCell(cellnum, "b", format);
+                writer.write("<v>");
+                writer.write(cell.getBooleanCellValue() ? '1' : '0');
+                writer.write("</v></c>");
+                break;
+            case ERROR:
+                startCell(cellnum, "e", format);
+                writer.write("<v>");
+                escape(cell.getStringCellValue());
+                writer.write("</v></c>");
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 把已写入的数据压缩并推送到下游输出流（SYNC_FLUSH，不等压缩缓冲区填满）
+     */
+    public void flush() throws IOException {
+        writer.flush();
+        zip.flush();
+    }
+
+    /**
+     * 放弃写入：之后的 close() 不再写sheet结尾、样式表、共享字符串和zip目录，也不关闭下游输出流
+     * 下游拿到的是截断的zip，打开时会报错，不会被当成完整的文件
+     */
+    public void abort() {
+        failed = true;
+    }
+
+    /**
+     * 结束sheet并写入样式表，完成zip；已调用 {@link #abort()} 时只释放压缩器
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (failed) {
+            zip.release();
+            return;
+        }
+        startSheet();
+        endRow();
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        writeStyles();
+        writeSharedStrings();
+        writer.flush();
+        zip.finish();
+        zip.close();
+    }
+
+    private void writeString(int cellnum, String value, String format) throws IOException {
+        if (shared(cellnum, value, format)) {
+            return;
+        }
+        startCell(cellnum, "inlineStr", format);
+        writer.write("<is><t xml:space=\"preserve\">");
+        escape(value);
+        writer.write("</t></is></c>");
+    }
+
+    /**
+     * 按列的存储方式写共享字符串，返回false表示应内联写入
+     */
+    private boolean shared(int cellnum, String value, String format) throws IOException {
+        ensureColumn(cellnum);
+        StringStorage storage = storages[cellnum];
+        if (storage == null) {
+            storage = defaultStorage;
+            storages[cellnum] = storage;
+        }
+        if (storage == StringStorage.INLINE) {
+            return false;
+        }
+        if (storage == StringStorage.AUTO) {
+            if (sharedStrings.size() >= MAX_AUTO_SHARED) {
+                storages[cellnum] = StringStorage.INLINE;
+                return false;
+            }
+            int before = sharedStrings.size();
+            writeShared(cellnum, value, format);
+            if (sharedStrings.size() > before) {
+                distinct[cellnum]++;
+            }
+            if (++sampled[cellnum] == SAMPLE_SIZE) {
+                // 抽样中超过一半是新值，视为高基数列
+                storages[cellnum] = distinct[cellnum] * 2 > SAMPLE_SIZE ? StringStorage.INLINE : StringStorage.SHARED;
+            }
+            return true;
+        }
+        writeShared(cellnum, value, format);
+        return true;
+    }
+
+    private void writeShared(int cellnum, String value, String format) throws IOException {
+        startCell(cellnum, "s", format);
+        writer.write("<v>");
+        writer.write(Integer.toString(sharedStrings.indexOf(value)));
+        writer.write("</v></c>");
+    }
+
+    private void ensureColumn(int index) {
+        if (index >= storages.length) {
+            int length = Math.max(index + 1, storages.length * 2);
+            storages = Arrays.copyOf(storages, length);
+            sampled = Arrays.copyOf(sampled, length);
+            distinct = Arrays.copyOf(distinct, length);
+        }
+    }
+
+    /**
+     * NaN、无穷大不是合法的数值，与POI的 setCellValue(double) 一样写成错误值
+     */
+    private void writeDouble(int cellnum, double value, String format) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            startCell(cellnum, "e", format);
+            writer.write("<v>");
+            writer.write(Double.isNaN(value) ? "#NUM!" : "#DIV/0!");
+            writer.write("</v></c>");
+            return;
+        }
+        // 整数不带 ".0"，与原先按long写入的结果一致
+        writeNumber(cellnum, value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value), format);
+    }
+
+    private void writeNumber(int cellnum, String value, String format) throws IOException {
+        startCell(cellnum, null, format);
+        writer.write("<v>");
+        writer.write(value);
+        writer.write("</v></c>");
+    }
+
+    private void startCell(int cellnum, String type, String format) throws IOException {
+        writer.write("<c r=\"");
+        writer.write(columnName(cellnum));
+        writer.write(Integer.toString(rowNum + 1));
+        writer.write("\" s=\"");
+        writer.write(Integer.toString(xf(format)));
+        if (type != null) {
+            writer.write("\" t=\"");
+            writer.write(type);
+        }
+        writer.write("\">");
+    }
+
+    private static String format(String format, String defaultFormat) {
+        return format != null ? format : defaultFormat;
+    }
+
+    private int xf(String format) {
+        if (format == null) {
+            return DEFAULT_XF;
+        }
+        Integer xf = formatXfs.get(format);
+        if (xf == null) {
+            xf = DEFAULT_XF + 1 + formatXfs.size();
+            formatXfs.put(format, xf);
+            if (BuiltinFormats.getBuiltinFormat(format) < 0) {
+                customFormats.add(format);
+            }
+        }
+        return xf;
+    }
+
+    private void endRow() throws IOException {
+        if (rowOpen) {
+            writer.write("</row>");
+            rowOpen = false;
+        }
+    }
+
+    private void startSheet() throws IOException {
+        if (sheetStarted) {
+            return;
+        }
+        sheetStarted = true;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\">");
+        if (!widths.isEmpty()) {
+            writer.write("<cols>");
+            for (Map.Entry<Integer, Integer> width : widths.entrySet()) {
+                String col = Integer.toString(width.getKey() + 1);
+                writer.write("<col min=\"" + col + "\" max=\"" + col + "\" width=\"" + width.getValue() + "\" customWidth=\"1\"/>");
+            }
+            writer.write("</cols>");
+        }
+        writer.write("<sheetData>");
+    }
+
+    private void writePackageParts() throws IOException {
+        entry("[Content_Types].xml", "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                + "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+                + "</Types>");
+        entry("_rels/.rels", "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        entry("xl/workbook.xml", "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\">"
+                + "<sheets><sheet name=\"Sheet1\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+                + "</workbook>");
+        entry("xl/_rels/workbook.xml.rels", "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                + "<Relationship Id=\"rId2\" Type=\"" + REL_NS + "/styles\" Target=\"styles.xml\"/>"
+                + "<Relationship Id=\"rId3\" Type=\"" + REL_NS + "/sharedStrings\" Target=\"sharedStrings.xml\"/>"
+                + "</Relationships>");
+    }
+
+    private void writeStyles() throws IOException {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("<styleSheet xmlns=\"" + MAIN_NS + "\">");
+        if (!customFormats.isEmpty()) {
+            sb.append("<numFmts count=\"").append(customFormats.size()).append("\">");
+            for (int i = 0; i < customFormats.size(); i++) {
+                sb.append("<numFmt numFmtId=\"").append(FIRST_CUSTOM_FORMAT + i).append("\" formatCode=\"");
+                appendEscaped(sb, customFormats.get(i));
+                sb.append("\"/>");
+            }
+            sb.append("</numFmts>");
+        }
+        sb.append("<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>")
+                .append("<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>")
+                .append("<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>")
+                .append("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>")
+                .append("<cellXfs count=\"").append(DEFAULT_XF + 1 + formatXfs.size()).append("\">")
+                .append("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>");
+        appendXf(sb, 0);
+        for (String format : formatXfs.keySet()) {
+            int id = BuiltinFormats.getBuiltinFormat(format);
+            appendXf(sb, id >= 0 ? id : FIRST_CUSTOM_FORMAT + customFormats.indexOf(format));
+        }
+        sb.append("</cellXfs>")
+                .append("<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>")
+                .append("</styleSheet>");
+        entry("xl/styles.xml", sb.toString());
+    }
+
+    private void writeSharedStrings() throws IOException {
+        zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        writer.write("<sst xmlns=\"" + MAIN_NS + "\" count=\"");
+        writer.write(Integer.toString(sharedStrings.count()));
+        writer.write("\" uniqueCount=\"");
+        writer.write(Integer.toString(sharedStrings.size()));
+        writer.write("\">");
+        for (int i = 0; i < sharedStrings.size(); i++) {
+            writer.write("<si><t xml:space=\"preserve\">");
+            escape(sharedStrings.get(i));
+            writer.write("</t></si>");
+        }
+        writer.write("</sst>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private static void appendXf(StringBuilder sb, int numFmtId) {
+        sb.append("<xf numFmtId=\"").append(numFmtId)
+                .append("\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\" applyAlignment=\"1\">")
+                .append("<alignment horizontal=\"center\" wrapText=\"1\"/></xf>");
+    }
+
+    private void entry(String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        writer.write(xml);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void escape(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = replacement(value.charAt(i));
+            if (replacement != null) {
+                writer.write(value, start, i - start);
+                writer.write(replacement);
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = replacement(c);
+            if (replacement != null) {
+                sb.append(replacement);
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * XML转义，去掉XML 1.0不允许的控制字符
+     */
+    private static String replacement(char c) {
+        switch (c) {
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '&':
+                return "&amp;";
+            case '"':
+                return "&quot;";
+            case '\t':
+            case '\n':
+            case '\r':
+                return null;
+            default:
+                return c < 0x20 || c == 0xFFFE || c == 0xFFFF ? "" : null;
+        }
+    }
+
+    private static String columnName(int index) {
+        return index < COLUMN_NAMES.length ? COLUMN_NAMES[index] : buildColumnName(index);
+    }
+
+    private static String buildColumnName(int index) {
+        StringBuilder sb = new StringBuilder(3);
+        for (int i = index + 1; i > 0; i = (i - 1) / 26) {
+            sb.insert(0, (char) ('A' + (i - 1) % 26));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * ZipOutputStream 的 flush() 只刷新下游，压缩器中已缓冲的数据要等到缓冲区填满才输出；
+     * 这里在条目打开期间按 SYNC_FLUSH 输出，压缩器写出的字节数仍计入条目的压缩长度
+     */
+    private static final class SyncFlushZipOutputStream extends ZipOutputStream {
+
+        private boolean entryOpen;
+
+        SyncFlushZipOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void putNextEntry(ZipEntry e) throws IOException {
+            super.putNextEntry(e);
+            entryOpen = true;
+        }
+
+        @Override
+        public void closeEntry() throws IOException {
+            super.closeEntry();
+            entryOpen = false;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (entryOpen && !def.finished()) {
+                int len;
+                while ((len = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0) {
+                    out.write(buf, 0, len);
+                    if (len < buf.length) {
+                        break;
+                    }
+                }
+            }
+            out.flush();
+        }
+
+        /**
+         * 释放压缩器的本地内存，不写zip目录
+         */
+        void release() {
+            def.end();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package vo;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -16,6 +17,7 @@ import java.util.Map;
 @Setter
 @SuppressWarnings("ALL")
 @Accessors(chain = true)
+@JsonSerialize(using = RSerializer.class)
 public class R<T> {
     public static final String DEF_ERROR_MESSAGE = "系统繁忙，请稍候再试";
     public static final String HYSTRIX_ERROR_MESSAGE = "请求超时，请稍候再试";
@@ -51,7 +53,7 @@ public class R<T> {
     /**
      * 响应时间
      */
-    private long timestamp = System.currentTimeMillis();
+    private long timestamp;
 
     private R() {
         this.timestamp = System.currentTimeMillis();
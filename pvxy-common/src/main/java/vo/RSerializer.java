@@ -0,0 +1,185 @@
+package vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * {@link R} 的序列化器，输出与按getter反射序列化一致：
+ * code、data、msg、path、extra、timestamp、isSuccess、isError
+ * 字段名使用预编码的 {@link SerializedString}；extra 为空时不查找Map序列化器；
+ * success()、timeout() 等常量响应直接写出预编码的模板，只有 timestamp 按实例写入
+ */
+public class RSerializer extends StdSerializer<R<?>> {
+
+    static final SerializableString CODE = new SerializedString("code");
+    static final SerializableString DATA = new SerializedString("data");
+    static final SerializableString MSG = new SerializedString("msg");
+    static final SerializableString PATH = new SerializedString("path");
+    static final SerializableString EXTRA = new SerializedString("extra");
+    static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    static final SerializableString IS_SUCCESS = new SerializedString("isSuccess");
+    static final SerializableString IS_ERROR = new SerializedString("isError");
+
+    /**
+     * 常量响应的模板，按 code、data、msg 匹配，path、extra 必须为null
+     */
+    private static final Template[] TEMPLATES = {
+            new Template(R.SUCCESS_CODE, Boolean.TRUE, "ok"),
+            new Template(R.SUCCESS_CODE, null, "ok"),
+            new Template(R.TIMEOUT_CODE, null, R.HYSTRIX_ERROR_MESSAGE),
+            new Template(R.FAIL_CODE, null, R.DEF_ERROR_MESSAGE),
+            new Template(R.OPERATION_EX_CODE, null, R.DEF_ERROR_MESSAGE),
+            new Template(R.VALID_EX_CODE, null, R.DEF_ERROR_MESSAGE)
+    };
+
+    public RSerializer() {
+        super(R.class, false);
+    }
+
+    @Override
+    public void serialize(R<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        JsonInclude.Include inclusion = inclusion(provider);
+        if (inclusion == JsonInclude.Include.ALWAYS && writeTemplate(value, gen)) {
+            return;
+        }
+        gen.writeStartObject(value);
+        writeFields(value, gen, provider, inclusion);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(R<?> value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.START_OBJECT));
+        writeFields(value, gen, provider, inclusion(provider));
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private static void writeFields(R<?> value, JsonGenerator gen, SerializerProvider provider,
+                                    JsonInclude.Include inclusion) throws IOException {
+        boolean skipNull = inclusion != JsonInclude.Include.ALWAYS;
+        boolean skipEmpty = inclusion == JsonInclude.Include.NON_EMPTY;
+        gen.writeFieldName(CODE);
+        gen.writeNumber(value.getCode());
+        Object data = value.getData();
+        if (data == null ? !skipNull : !skipEmpty || !isEmptyData(provider, data)) {
+            gen.writeFieldName(DATA);
+            provider.defaultSerializeValue(data, gen);
+        }
+        writeString(gen, MSG, value.getMsg(), skipNull, skipEmpty);
+        writeString(gen, PATH, value.getPath(), skipNull, skipEmpty);
+        Map<Object, Object> extra = value.getExtra();
+        if (extra == null) {
+            if (!skipNull) {
+                gen.writeFieldName(EXTRA);
+                gen.writeNull();
+            }
+        } else if (extra.isEmpty()) {
+            if (!skipEmpty) {
+                gen.writeFieldName(EXTRA);
+                gen.writeStartObject();
+                gen.writeEndObject();
+            }
+        } else {
+            gen.writeFieldName(EXTRA);
+            provider.defaultSerializeValue(extra, gen);
+        }
+        gen.writeFieldName(TIMESTAMP);
+        gen.writeNumber(value.getTimestamp());
+        boolean success = value.getIsSuccess();
+        gen.writeFieldName(IS_SUCCESS);
+        gen.writeBoolean(success);
+        gen.writeFieldName(IS_ERROR);
+        gen.writeBoolean(!success);
+    }
+
+    /**
+     * 与按getter序列化的 NON_EMPTY 一致：由值的序列化器判断空集合、空字符串等
+     */
+    private static boolean isEmptyData(SerializerProvider provider, Object data) throws IOException {
+        return provider.findValueSerializer(data.getClass()).isEmpty(provider, data);
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value,
+                                    boolean skipNull, boolean skipEmpty) throws IOException {
+        if (value == null ? skipNull : skipEmpty && value.isEmpty()) {
+            return;
+        }
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+
+    /**
+     * 常量响应直接写出模板；模板按默认配置编码，生成器有转义、缩进等设置时不使用
+     *
+     * @return 是否已写出
+     */
+    private static boolean writeTemplate(R<?> value, JsonGenerator gen) throws IOException {
+        if (value.getPath() != null || value.getExtra() != null || !(gen instanceof JsonGeneratorImpl)
+                || gen.getPrettyPrinter() != null || gen.getHighestEscapedChar() != 0 || gen.getCharacterEscapes() != null) {
+            return false;
+        }
+        for (Template template : TEMPLATES) {
+            if (template.matches(value)) {
+                // writeRawValue 负责分隔符和上下文，后面两段与前缀属于同一个值
+                gen.writeRawValue(template.prefix);
+                gen.writeRaw(Long.toString(value.getTimestamp()));
+                gen.writeRaw(template.suffix);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JsonInclude.Include inclusion(SerializerProvider provider) {
+        return inclusion(provider.getConfig());
+    }
+
+    /**
+     * mapper 对 R 生效的包含规则，未设置时按 ALWAYS
+     */
+    static JsonInclude.Include inclusion(SerializationConfig config) {
+        JsonInclude.Include inclusion = config.getDefaultPropertyInclusion(R.class).getValueInclusion();
+        return inclusion == JsonInclude.Include.USE_DEFAULTS ? JsonInclude.Include.ALWAYS : inclusion;
+    }
+
+    private static final class Template {
+
+        private final int code;
+
+        private final Boolean data;
+
+        private final String msg;
+
+        private final SerializableString prefix;
+
+        private final SerializableString suffix;
+
+        Template(int code, Boolean data, String msg) {
+            this.code = code;
+            this.data = data;
+            this.msg = msg;
+            this.prefix = new SerializedString("{\"code\":" + code + ",\"data\":" + data
+                    + ",\"msg\":\"" + new String(new SerializedString(msg).asQuotedChars())
+                    + "\",\"path\":null,\"extra\":null,\"timestamp\":");
+            boolean success = code == R.SUCCESS_CODE;
+            this.suffix = new SerializedString(",\"isSuccess\":" + success + ",\"isError\":" + !success + "}");
+        }
+
+        boolean matches(R<?> value) {
+            return value.getCode() == code && value.getData() == data && msg.equals(value.getMsg());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 流式输出的 {@link R}，用于大列表接口
+ * data 来自 Iterator/Stream，边迭代边序列化为JSON数组直接写入响应流，每 flushSize 条刷新一次，
+ * 内存中只保留当前一条；输出的字段及 spring.jackson 的包含规则与 {@link R#success(Object)} 相同，
+ * 因此必须传入应用的 ObjectMapper
+ * <pre>
+ * &#64;Autowired
+ * private ObjectMapper objectMapper;
+ *
+ * &#64;GetMapping("/export")
+ * public ResponseEntity&lt;StreamingResponseBody&gt; export() {
+ *     return RStream.of(objectMapper, userMapper.cursor()).toResponse();
+ * }
+ * </pre>
+ * 写出在MVC异步线程中执行，受 spring.mvc.async.request-timeout（未设置时为容器默认值，Tomcat为30秒）限制，
+ * 超时后连接被中断，耗时较长的导出需调大该值；
+ * 开始输出后状态已提交，迭代中出现异常时连接中断，客户端得到不完整的JSON
+ */
+public class RStream<T> implements StreamingResponseBody {
+
+    private final Iterator<? extends T> source;
+
+    /**
+     * 写完或失败后关闭，例如数据库游标
+     */
+    private final AutoCloseable resource;
+
+    private final long timestamp = System.currentTimeMillis();
+
+    private String msg = "ok";
+
+    private Map<Object, Object> extra;
+
+    private int flushSize = 1000;
+
+    private final ObjectMapper mapper;
+
+    private RStream(ObjectMapper mapper, Iterator<? extends T> source, AutoCloseable resource) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.source = source;
+        this.resource = resource;
+    }
+
+    public static <E> RStream<E> of(ObjectMapper mapper, Iterator<? extends E> source) {
+        return new RStream<>(mapper, source, source instanceof AutoCloseable ? (AutoCloseable) source : null);
+    }
+
+    public static <E> RStream<E> of(ObjectMapper mapper, Iterable<? extends E> source) {
+        return of(mapper, source.iterator());
+    }
+
+    /**
+     * 写完后关闭 stream
+     */
+    public static <E> RStream<E> of(ObjectMapper mapper, Stream<? extends E> source) {
+        return new RStream<>(mapper, source.iterator(), source);
+    }
+
+    public RStream<T> msg(String msg) {
+        this.msg = msg;
+        return this;
+    }
+
+    public RStream<T> put(String key, Object value) {
+        if (this.extra == null) {
+            this.extra = new HashMap<>(10);
+        }
+        this.extra.put(key, value);
+        return this;
+    }
+
+    /**
+     * 每写出多少条刷新一次响应流，默认1000
+     */
+    public RStream<T> flushSize(int flushSize) {
+        if (flushSize <= 0) {
+            throw new IllegalArgumentException("flushSize必须大于0");
+        }
+        this.flushSize = flushSize;
+        return this;
+    }
+
+    /**
+     * 带 JSON Content-Type 的响应，直接返回 RStream 时不会设置 Content-Type
+     */
+    public ResponseEntity<StreamingResponseBody> toResponse() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(this);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        // 逐条写出时不刷新，按 flushSize 统一刷新
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonInclude.Include inclusion = RSerializer.inclusion(mapper.getSerializationConfig());
+        boolean skipNull = inclusion != JsonInclude.Include.ALWAYS;
+        boolean skipEmpty = inclusion == JsonInclude.Include.NON_EMPTY;
+        try (JsonGenerator gen = writer.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            writer.getConfig().initialize(gen);
+            // 失败时不补全括号，避免客户端把截断的数据当成完整结果
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            gen.writeStartObject();
+            gen.writeFieldName(RSerializer.CODE);
+            gen.writeNumber(R.SUCCESS_CODE);
+            // NON_EMPTY 下空列表不输出 data
+            if (!skipEmpty || source.hasNext()) {
+                gen.writeFieldName(RSerializer.DATA);
+                SequenceWriter data = writer.writeValuesAsArray(gen);
+                int count = 0;
+                while (source.hasNext()) {
+                    data.write(source.next());
+                    if (++count % flushSize == 0) {
+                        gen.flush();
+                    }
+                }
+                data.close();
+            }
+            RSerializer.writeString(gen, RSerializer.MSG, msg, skipNull, skipEmpty);
+            RSerializer.writeString(gen, RSerializer.PATH, null, skipNull, skipEmpty);
+            if (extra == null ? !skipNull : !skipEmpty || !extra.isEmpty()) {
+                gen.writeFieldName(RSerializer.EXTRA);
+                writer.writeValue(gen, extra);
+            }
+            gen.writeFieldName(RSerializer.TIMESTAMP);
+            gen.writeNumber(timestamp);
+            gen.writeFieldName(RSerializer.IS_SUCCESS);
+            gen.writeBoolean(true);
+            gen.writeFieldName(RSerializer.IS_ERROR);
+            gen.writeBoolean(false);
+            gen.writeEndObject();
+        } finally {
+            close();
+        }
+    }
+
+    private void close() {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package util;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 记录输出内容和响应头的 HttpServletResponse，只实现导出用到的方法
+ */
+final class CapturingResponse {
+
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    final Map<String, String> headers = new HashMap<>();
+
+    /**
+     * 每次 flushBuffer 时已输出的字节数
+     */
+    final List<Integer> flushes = new ArrayList<>();
+
+    final HttpServletResponse response;
+
+    CapturingResponse() {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                body.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+        response = (HttpServletResponse) Proxy.newProxyInstance(CapturingResponse.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getOutputStream":
+                            return out;
+                        case "setContentType":
+                            headers.put("Content-Type", (String) args[0]);
+                            return null;
+                        case "setHeader":
+                        case "addHeader":
+                            headers.put((String) args[0], (String) args[1]);
+                            return null;
+                        case "setContentLengthLong":
+                            headers.put("Content-Length", String.valueOf(args[0]));
+                            return null;
+                        case "flushBuffer":
+                            flushes.add(body.size());
+                            return null;
+                        default:
+                            Class<?> type = method.getReturnType();
+                            if (type == boolean.class) {
+                                return false;
+                            }
+                            if (type == int.class) {
+                                return 0;
+                            }
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CellStyleRegistryTest {
+
+    @Test
+    public void createsEachCombinationOnce() {
+        Workbook workbook = new XSSFWorkbook();
+        CellStyleRegistry registry = new CellStyleRegistry(workbook);
+        CellStyle base = workbook.getCellStyleAt(0);
+
+        CellStyle center = registry.get(base, HorizontalAlignment.CENTER, true);
+        assertSame(center, registry.get(base, HorizontalAlignment.CENTER, true));
+        CellStyle left = registry.get(base, HorizontalAlignment.LEFT, true);
+        assertNotSame(center, left);
+        assertEquals(2, registry.size());
+        assertEquals(HorizontalAlignment.CENTER, center.getAlignment());
+        assertTrue(center.getWrapText());
+        // 默认样式不被修改
+        assertEquals(HorizontalAlignment.GENERAL, base.getAlignment());
+    }
+
+    @Test
+    public void derivedStyleKeepsRootBase() {
+        Workbook workbook = new XSSFWorkbook();
+        CellStyleRegistry registry = new CellStyleRegistry(workbook);
+        CellStyle bordered = workbook.createCellStyle();
+        bordered.setBorderTop(BorderStyle.THIN);
+
+        CellStyle center = registry.get(bordered, HorizontalAlignment.CENTER, false);
+        assertEquals(BorderStyle.THIN, center.getBorderTop());
+        // 在派生样式上再派生，按原始基础样式查找，不会产生新的样式链
+        CellStyle left = registry.get(center, HorizontalAlignment.LEFT, false);
+        assertSame(left, registry.get(bordered, HorizontalAlignment.LEFT, false));
+        assertSame(center, registry.get(left, HorizontalAlignment.CENTER, false));
+        assertEquals(BorderStyle.THIN, left.getBorderTop());
+    }
+
+    @Test
+    public void keepsStyleCountBoundedOnLargeSheet() {
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        for (int i = 0; i < 5000; i++) {
+            excel.write("a" + i, (long) i, 1.5d).nextRow();
+            excel.writeLeft(excel.getCurrentRowNum(), 3, "left");
+        }
+        assertTrue(excel.getWorkbook().getNumCellStyles() < 10);
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        Workbook workbook = new XSSFWorkbook();
+        CellStyleRegistry registry = new CellStyleRegistry(workbook);
+        CellStyle base = workbook.getCellStyleAt(0);
+        for (short format = 0; format < 100; format++) {
+            registry.get(base, HorizontalAlignment.CENTER, true, format);
+        }
+        assertEquals(100, registry.size());
+        for (short format = 0; format < 100; format++) {
+            assertEquals(format, registry.get(base, HorizontalAlignment.CENTER, true, format).getDataFormat());
+        }
+        assertEquals(100, registry.size());
+    }
+}
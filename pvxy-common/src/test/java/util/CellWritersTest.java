@@ -0,0 +1,95 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CellWritersTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static class Money {
+        final long cents;
+
+        Money(long cents) {
+            this.cents = cents;
+        }
+    }
+
+    private static class Unknown {
+    }
+
+    @Test
+    public void writesNumbersAsNumericCells() {
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.write(1, 2L, 3.25d, new BigDecimal("4.50"), 5.126f);
+        Sheet sheet = excel.getSheet();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(CellType.NUMERIC, sheet.getRow(0).getCell(i).getCellType());
+        }
+        assertEquals(4.5d, sheet.getRow(0).getCell(3).getNumericCellValue(), 0d);
+        // Float 保留两位小数
+        assertEquals(5.13d, sheet.getRow(0).getCell(4).getNumericCellValue(), 1e-9);
+        assertEquals(CellWriters.NUMBER_FORMAT, sheet.getRow(0).getCell(2).getCellStyle().getDataFormatString());
+    }
+
+    @Test
+    public void formatsDatesWithCachedFormatters() {
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.write(LocalDate.of(2020, 1, 15), LocalDateTime.of(2020, 1, 15, 8, 30, 5));
+        Sheet sheet = excel.getSheet();
+        assertEquals("2020-01-15", sheet.getRow(0).getCell(0).getStringCellValue());
+        assertEquals("2020-01-15 08:30:05", sheet.getRow(0).getCell(1).getStringCellValue());
+    }
+
+    @Test
+    public void usesRegisteredWriterForCustomType() {
+        CellWriters.register(Money.class, "0.00", (cell, value) -> cell.setCellValue(value.cents / 100d));
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.write(0, 0, new Money(1234));
+        Cell cell = excel.getSheet().getRow(0).getCell(0);
+        assertEquals(12.34d, cell.getNumericCellValue(), 0d);
+        assertEquals("0.00", cell.getCellStyle().getDataFormatString());
+    }
+
+    @Test
+    public void resolvesSupertypeWriter() {
+        CellWriters.Entry entry = CellWriters.lookup(StringBuilder.class);
+        assertSame(entry, CellWriters.lookup(StringBuffer.class));
+        assertNotNull(entry);
+        assertNull(CellWriters.lookup(Unknown.class));
+    }
+
+    @Test
+    public void skipsStyleAndWidthForUnknownType() throws Exception {
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.write(0, 0, new Unknown());
+        File file = excel.export(new File(folder.getRoot(), "unknown").getPath());
+
+        try (InputStream in = new FileInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Cell cell = sheet.getRow(0).getCell(0);
+            assertEquals(CellType.BLANK, cell.getCellType());
+            assertEquals(0, cell.getCellStyle().getIndex());
+            assertEquals(sheet.getDefaultColumnWidth() * 256, sheet.getColumnWidth(0));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColumnWidthsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void countsWideCharactersTwice() {
+        assertEquals(4, ColumnWidths.width("ab中"));
+        // 半角片假名计1，全角字母和韩文计2
+        assertEquals(7, ColumnWidths.width("ｱＡ한글"));
+        // 多行取最长一行
+        assertEquals(5, ColumnWidths.width("ab\nabcde\nc"));
+        assertEquals(ColumnWidths.MAX_WIDTH, ColumnWidths.width(repeat('中', 100)));
+    }
+
+    @Test
+    public void appliesWidestValuePerColumn() throws IOException {
+        ColumnWidths widths = new ColumnWidths();
+        widths.record(0, "abc", null);
+        widths.record(0, "名称很长", null);
+        widths.record(1, -12345L, null);
+        widths.record(2, LocalDate.of(2020, 1, 1), "yyyy-MM-dd");
+        widths.record(20, repeat('x', 200), null);
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            widths.apply(sheet);
+            assertEquals((8 + 2) * 256, sheet.getColumnWidth(0));
+            assertEquals((6 + 2) * 256, sheet.getColumnWidth(1));
+            assertEquals((10 + 2) * 256, sheet.getColumnWidth(2));
+            assertEquals(ColumnWidths.MAX_WIDTH * 256, sheet.getColumnWidth(20));
+        }
+    }
+
+    @Test
+    public void keepsPinnedColumns() throws IOException {
+        ColumnWidths widths = new ColumnWidths();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            sheet.setColumnWidth(0, 3000);
+            widths.pin(0);
+            widths.record(0, "a very long value", null);
+            widths.apply(sheet);
+            assertEquals(3000, sheet.getColumnWidth(0));
+        }
+    }
+
+    @Test
+    public void setsWidthsOnExport() throws IOException {
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.title("编号", "说明").nextRow();
+        excel.write(1L, "这是一段比较长的说明文字").nextRow();
+        File file = excel.export(new File(folder.getRoot(), "widths").getPath());
+        try (InputStream in = new FileInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+            assertEquals((24 + 2) * 256, workbook.getSheetAt(0).getColumnWidth(1));
+        }
+    }
+
+    private static String repeat(char c, int n) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
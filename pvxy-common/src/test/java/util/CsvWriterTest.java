@@ -0,0 +1,148 @@
+package util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CsvWriterTest {
+
+    private static final String BOM = "﻿";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void formatsNumbersWithoutExponent() {
+        assertEquals("10000000000", CsvWriter.format(1.0E10));
+        assertEquals("0.0000001", CsvWriter.format(1.0E-7));
+        assertEquals("12.5", CsvWriter.format(12.50d));
+        assertEquals("0", CsvWriter.format(-0.0d));
+        assertEquals("1.23", CsvWriter.format(new BigDecimal("1.2300")));
+        assertEquals("1000", CsvWriter.format(new BigDecimal("1E+3")));
+        assertEquals("0", CsvWriter.format(new BigDecimal("0.000")));
+        // BigDecimal 不经过 double，超过 double 精度的位数保留
+        assertEquals("12345678901234567890.12", CsvWriter.format(new BigDecimal("12345678901234567890.12")));
+        assertEquals("123456789012345678901234567890", CsvWriter.format(new BigInteger("123456789012345678901234567890")));
+        assertEquals("1.23", CsvWriter.format(1.234f));
+        assertEquals("NaN", CsvWriter.format(Double.NaN));
+        assertEquals("42", CsvWriter.format(42L));
+    }
+
+    @Test
+    public void quotesAndEncodesFields() throws IOException {
+        CsvWriter csv = PoiExcelUtil.newCsv();
+        csv.title("名称", "备注").nextRow();
+        csv.write("a,b", "say \"hi\"").nextRow();
+        csv.write("多行\n文本", "😀").nextRow();
+        assertEquals(BOM + "名称,备注\n\"a,b\",\"say \"\"hi\"\"\"\n\"多行\n文本\",😀\n", export(csv));
+    }
+
+    @Test
+    public void writesTsvAndSkippedRows() throws IOException {
+        CsvWriter csv = PoiExcelUtil.newCsv('\t');
+        csv.write("a,b", 1).nextRow(2);
+        csv.write(3, "x");
+        File file = csv.export(new File(folder.getRoot(), "out").getPath());
+        assertTrue(file.getName().endsWith(".tsv"));
+        String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(text.startsWith(BOM + "a,b\t1\n\n\t\t\tx"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsWritingBackwards() {
+        CsvWriter csv = PoiExcelUtil.newCsv();
+        try {
+            csv.write("a").nextRow();
+            csv.write("b");
+            csv.write(0, 0, "late");
+        } finally {
+            csv.close();
+        }
+    }
+
+    @Test
+    public void exportsToResponse() {
+        CsvWriter csv = PoiExcelUtil.newCsv();
+        csv.write("a", 1.5d).nextRow();
+        CapturingResponse response = new CapturingResponse();
+        csv.export("导出", response.response);
+        byte[] expected = (BOM + "a,1.5\n").getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, response.body.toByteArray());
+        assertEquals("text/csv;charset=UTF-8", response.headers.get("Content-Type"));
+        assertEquals(String.valueOf(expected.length), response.headers.get("Content-Length"));
+    }
+
+    @Test
+    public void closeDeletesTempFile() throws IOException {
+        CsvWriter[] holder = new CsvWriter[1];
+        Path tmp = newTempFile(() -> holder[0] = PoiExcelUtil.newCsv().write("a").nextRow());
+        assertTrue(Files.exists(tmp));
+        CsvWriter csv = holder[0];
+        csv.close();
+        assertTrue(Files.notExists(tmp));
+        // 可重复调用，关闭后不能再写
+        csv.close();
+        try {
+            csv.write("b");
+        } catch (IllegalStateException expected) {
+            return;
+        }
+        throw new AssertionError("关闭后仍可写入");
+    }
+
+    @Test
+    public void exportToFileLeavesNoTempFile() throws IOException {
+        File file = new File(folder.getRoot(), "moved");
+        Path tmp = newTempFile(() -> {
+            CsvWriter csv = PoiExcelUtil.newCsv();
+            csv.write("a");
+            assertEquals(file.getPath() + ".csv", csv.export(file.getPath()).getPath());
+        });
+        assertNull(tmp);
+    }
+
+    private static String export(CsvWriter csv) {
+        CapturingResponse response = new CapturingResponse();
+        csv.export("test", response.response);
+        return new String(response.body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 执行 action 期间新建且仍存在的 CSV 临时文件，没有则返回null
+     */
+    private static Path newTempFile(Runnable action) throws IOException {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"));
+        Set<Path> before = tempFiles(dir);
+        action.run();
+        Set<Path> after = tempFiles(dir);
+        after.removeAll(before);
+        assertTrue(Arrays.toString(after.toArray()), after.size() <= 1);
+        return after.isEmpty() ? null : after.iterator().next();
+    }
+
+    private static Set<Path> tempFiles(Path dir) throws IOException {
+        Set<Path> files = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "pvxy-csv-*.tmp")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+}
@@ -0,0 +1,133 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExcelBeanMetaTest {
+
+    public static class Base {
+        @ExcelColumn(index = 0, title = "编号")
+        protected Long id;
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    public static class Order extends Base {
+        @ExcelColumn(index = 2, title = "金额", format = "0.00", width = 12)
+        private BigDecimal amount;
+
+        @ExcelColumn(index = 1)
+        private String name;
+
+        private String ignored = "x";
+
+        public Order() {
+        }
+
+        Order(long id, String name, String amount) {
+            this.id = id;
+            this.name = name;
+            this.amount = new BigDecimal(amount);
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * 非public类，取值退化为MethodHandle
+     */
+    static class Hidden {
+        @ExcelColumn(index = 0)
+        private int value = 7;
+    }
+
+    public static class Duplicated {
+        @ExcelColumn(index = 1)
+        private String a;
+
+        @ExcelColumn(index = 1)
+        private String b;
+    }
+
+    public static class Negative {
+        @ExcelColumn(index = -1)
+        private String a;
+    }
+
+    public static class Plain {
+        private String a;
+    }
+
+    @Test
+    public void resolvesColumnsInIndexOrder() {
+        ExcelBeanMeta.Column[] columns = ExcelBeanMeta.of(Order.class).columns();
+        assertEquals(3, columns.length);
+        assertEquals("编号", columns[0].title);
+        assertEquals("name", columns[1].title);
+        assertEquals("金额", columns[2].title);
+        assertEquals("0.00", columns[2].format);
+        Order order = new Order(9, "a", "1.5");
+        assertEquals(9L, columns[0].get(order));
+        assertEquals(new BigDecimal("1.5"), columns[2].get(order));
+    }
+
+    @Test
+    public void readsFieldOfNonPublicClass() {
+        assertEquals(7, ExcelBeanMeta.of(Hidden.class).columns()[0].get(new Hidden()));
+    }
+
+    @Test
+    public void writesTitleAndRows() {
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.writeBeans(Arrays.asList(new Order(1, "甲", "10.5"), null, new Order(2, "乙", "3")), Order.class);
+        Sheet sheet = excel.getSheet();
+        assertEquals("金额", sheet.getRow(0).getCell(2).getStringCellValue());
+        Row first = sheet.getRow(1);
+        assertEquals(1d, first.getCell(0).getNumericCellValue(), 0d);
+        assertEquals("甲", first.getCell(1).getStringCellValue());
+        assertEquals(10.5d, first.getCell(2).getNumericCellValue(), 0d);
+        assertEquals("0.00", first.getCell(2).getCellStyle().getDataFormatString());
+        // null元素留空行
+        assertNull(sheet.getRow(2));
+        assertEquals("乙", sheet.getRow(3).getCell(1).getStringCellValue());
+        assertEquals(12 * 256, sheet.getColumnWidth(2));
+        assertEquals(4, excel.getCurrentRowNum());
+    }
+
+    @Test
+    public void rejectsDuplicateIndex() {
+        try {
+            ExcelBeanMeta.of(Duplicated.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("列号重复：1"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeIndex() {
+        ExcelBeanMeta.of(Negative.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsClassWithoutColumns() {
+        ExcelBeanMeta.of(Plain.class);
+    }
+}
@@ -0,0 +1,139 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExcelCellsTest {
+
+    @Test
+    public void convertsSerialLikeDateUtil() {
+        double[] serials = {1, 59, 60, 61, 366.5, 43845.354166, 43845.999999, 2958465.99};
+        for (double serial : serials) {
+            LocalDateTime expected = DateUtil.getJavaDate(serial, false).toInstant()
+                    .atZone(ZoneId.systemDefault()).toLocalDateTime();
+            assertEquals("1900:" + serial, expected, ExcelCells.toLocalDateTime(serial, false));
+            LocalDateTime expected1904 = DateUtil.getJavaDate(serial, true).toInstant()
+                    .atZone(ZoneId.systemDefault()).toLocalDateTime();
+            assertEquals("1904:" + serial, expected1904, ExcelCells.toLocalDateTime(serial, true));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeSerial() {
+        ExcelCells.toLocalDateTime(-1, false);
+    }
+
+    @Test
+    public void formatsLikeDecimalFormat() {
+        DecimalFormat format = new DecimalFormat("0");
+        double[] values = {0, -0d, 0.5, 1.5, 2.5, -2.5, 12345.678, 1e15, 1.23456789e17, -4.4e18};
+        for (double value : values) {
+            assertEquals(String.valueOf(value), format.format(value), ExcelCells.formatInteger(value));
+            assertEquals(String.valueOf(value), new BigDecimal(value).toPlainString(), ExcelCells.formatPlain(value));
+        }
+    }
+
+    @Test
+    public void readsTypedValuesWithoutStrings() {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        CellStyle date = workbook.createCellStyle();
+        date.setDataFormat((short) 22);
+        Row row = workbook.createSheet().createRow(0);
+        row.createCell(0).setCellValue(42.6d);
+        row.createCell(1).setCellValue(" 17 ");
+        Cell time = row.createCell(2);
+        time.setCellValue(LocalDateTime.of(2020, 5, 7, 13, 29));
+        time.setCellStyle(date);
+        row.createCell(3).setCellValue("2020-05-07");
+        row.createCell(4).setCellFormula("A1*2");
+        row.getCell(4).setCellValue(85.2d);
+
+        assertEquals(Long.valueOf(17), ExcelCells.toLong(row.getCell(1)));
+        assertEquals(new BigDecimal("42.6"), ExcelCells.toDecimal(row.getCell(0)));
+        assertEquals(LocalDateTime.of(2020, 5, 7, 13, 29), ExcelCells.toLocalDateTime(time));
+        assertEquals(LocalDate.of(2020, 5, 7), ExcelCells.toLocalDate(row.getCell(3)));
+        assertEquals(Double.valueOf(85.2d), ExcelCells.toDouble(row.getCell(4)));
+        assertNull(ExcelCells.toLong(row.getCell(9)));
+        assertNull(ExcelCells.toLong(row.createCell(9)));
+    }
+
+    @Test
+    public void rejectsFractionalNumbersLikeText() throws IOException {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Row row = workbook.createSheet().createRow(0);
+        row.createCell(0).setCellValue(12.7d);
+        row.createCell(1).setCellValue("12.7");
+        row.createCell(2).setCellValue(12d);
+        row.createCell(3).setCellValue("12.0");
+        assertEquals(Long.valueOf(12), ExcelCells.toLong(row.getCell(2)));
+        assertEquals(Long.valueOf(12), ExcelCells.toLong(row.getCell(3)));
+        assertFractionRejected(() -> ExcelCells.toLong(row.getCell(0)));
+        assertFractionRejected(() -> ExcelCells.toLong(row.getCell(1)));
+        assertFractionRejected(() -> ExcelCells.toInteger(row.getCell(0)));
+
+        // SAX 读取的 RowView 与之一致
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        List<RowView> rows = new ArrayList<>();
+        PoiExcelUtil.streamRows(new ByteArrayInputStream(out.toByteArray()), view -> {
+            assertEquals(Long.valueOf(12), view.readLong(2));
+            assertEquals(Long.valueOf(12), view.readLong(3));
+            assertFractionRejected(() -> view.readLong(0));
+            assertFractionRejected(() -> view.readLong(1));
+            assertFractionRejected(() -> view.readInteger(0));
+            rows.add(view);
+            return true;
+        });
+        assertEquals(1, rows.size());
+    }
+
+    private static void assertFractionRejected(Runnable read) {
+        try {
+            read.run();
+        } catch (ArithmeticException expected) {
+            return;
+        }
+        throw new AssertionError("12.7 被当作整数读取");
+    }
+
+    @Test
+    public void readsDateTextLikeBefore() {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        CellStyle date = workbook.createCellStyle();
+        date.setDataFormat((short) 14);
+        CellStyle time = workbook.createCellStyle();
+        time.setDataFormat((short) 20);
+        Row row = workbook.createSheet().createRow(0);
+        row.createCell(0).setCellValue(LocalDateTime.of(2020, 5, 7, 13, 29));
+        row.getCell(0).setCellStyle(date);
+        row.createCell(1).setCellValue(LocalDateTime.of(2020, 5, 7, 13, 29));
+        row.getCell(1).setCellStyle(time);
+        row.createCell(2).setCellValue(1234567.5);
+
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.setWorkbook(workbook);
+        excel.setSheet(workbook.getSheetAt(0));
+        assertEquals("2020-05-07", excel.readDate(0, 0));
+        assertEquals("13:29", excel.readDate(0, 1));
+        assertEquals("1234567.5", excel.readDate(0, 2));
+        assertEquals("1234568", excel.read(0, 2));
+    }
+}
@@ -0,0 +1,72 @@
+package util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ExcelFilesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 超过直接缓冲区大小，覆盖多次读写
+     */
+    private static byte[] data() {
+        byte[] bytes = new byte[700 * 1024 + 13];
+        new Random(3).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void spoolsStreamWithDigest() throws Exception {
+        byte[] bytes = data();
+        Path target = folder.newFile().toPath();
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        assertEquals(bytes.length, ExcelFiles.spool(new ByteArrayInputStream(bytes), target, digest));
+        assertArrayEquals(bytes, Files.readAllBytes(target));
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(bytes), digest.digest());
+    }
+
+    @Test
+    public void transfersFileStreamAndTruncatesTarget() throws IOException {
+        byte[] bytes = data();
+        Path source = folder.newFile().toPath();
+        Files.write(source, bytes);
+        Path target = folder.newFile().toPath();
+        Files.write(target, new byte[bytes.length * 2]);
+        try (InputStream in = new FileInputStream(source.toFile())) {
+            // 已读过的部分不再写入
+            assertEquals(10, in.skip(10));
+            assertEquals(bytes.length - 10, ExcelFiles.spool(in, target));
+        }
+        byte[] written = Files.readAllBytes(target);
+        assertEquals(bytes.length - 10, written.length);
+        assertEquals(bytes[10], written[0]);
+        assertEquals(bytes[bytes.length - 1], written[written.length - 1]);
+    }
+
+    @Test
+    public void digestsMappedFile() throws Exception {
+        byte[] bytes = data();
+        Path file = folder.newFile().toPath();
+        Files.write(file, bytes);
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(bytes),
+                ExcelFiles.digest(file, MessageDigest.getInstance("SHA-256")));
+        Path empty = folder.newFile().toPath();
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(new byte[0]),
+                ExcelFiles.digest(empty, MessageDigest.getInstance("SHA-256")));
+    }
+}
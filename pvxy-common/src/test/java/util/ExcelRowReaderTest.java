@@ -0,0 +1,81 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExcelRowReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File workbook() throws IOException {
+        File file = folder.newFile("read.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet first = workbook.createSheet("a");
+            for (int i = 0; i < 5; i++) {
+                Row row = first.createRow(i * 2);
+                row.createCell(0).setCellValue("name" + i);
+                row.createCell(3).setCellValue(i);
+            }
+            workbook.createSheet("b").createRow(0).createCell(1).setCellValue("second");
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    @Test
+    public void readsRowsInOrder() throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Integer> rowNums = new ArrayList<>();
+        int count = PoiExcelUtil.streamRows(workbook(), row -> {
+            names.add(row.read(0));
+            rowNums.add(row.getRowNum());
+            assertEquals(4, row.size());
+            assertNull(row.read(1));
+            assertEquals(String.valueOf(row.getRowNum() / 2), row.read(3));
+            return true;
+        });
+        assertEquals(5, count);
+        assertEquals("name4", names.get(4));
+        assertEquals(Integer.valueOf(8), rowNums.get(4));
+    }
+
+    @Test
+    public void stopsWhenHandlerReturnsFalse() throws IOException {
+        int count = PoiExcelUtil.streamRows(workbook(), row -> row.getRowNum() < 4);
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void readsOtherSheetAndStream() throws IOException {
+        File file = workbook();
+        List<String> values = new ArrayList<>();
+        PoiExcelUtil.streamRows(file, 1, row -> values.add(row.read(1)));
+        assertEquals("second", values.get(0));
+
+        try (InputStream in = new FileInputStream(file)) {
+            assertEquals(5, PoiExcelUtil.streamRows(in, row -> true));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingSheet() throws IOException {
+        PoiExcelUtil.streamRows(workbook(), 5, row -> true);
+    }
+}
@@ -0,0 +1,149 @@
+package util;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import vo.R;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExportJobManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ExportJobManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new ExportJobManager(1, 1, folder.getRoot(), 1, TimeUnit.HOURS);
+    }
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    private ExportJob await(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ExportJob job = manager.status(id).getData();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("导出任务未结束");
+    }
+
+    @Test
+    public void rendersAndDownloads() throws Exception {
+        R<String> submitted = manager.submit("报表", job -> {
+            PoiExcelUtil excel = PoiExcelUtil.newStreamingExcel(10);
+            for (int i = 0; i < 100; i++) {
+                excel.write((long) i).nextRow();
+                job.progress(i, 100);
+            }
+            return excel;
+        });
+        assertTrue(submitted.getIsSuccess());
+        ExportJob job = await(submitted.getData());
+        assertEquals(ExportJob.State.SUCCESS, job.getState());
+        assertEquals(100, job.getProgress());
+
+        CapturingResponse capture = new CapturingResponse();
+        assertTrue(manager.download(job.getId(), capture.response));
+        byte[] file = Files.readAllBytes(new File(folder.getRoot(), job.getId() + ".xlsx").toPath());
+        assertArrayEquals(file, capture.body.toByteArray());
+        assertEquals(String.valueOf(file.length), capture.headers.get("Content-Length"));
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(file))) {
+            assertEquals(99, workbook.getSheetAt(0).getLastRowNum());
+        }
+    }
+
+    @Test
+    public void marksFailedWhenRenderThrows() throws Exception {
+        String id = manager.submit("报表", job -> {
+            throw new IllegalStateException("查询超时");
+        }).getData();
+        ExportJob job = await(id);
+        assertEquals(ExportJob.State.FAILED, job.getState());
+        assertEquals("查询超时", job.getMsg());
+        assertFalse(manager.download(id, new CapturingResponse().response));
+    }
+
+    @Test
+    public void marksFailedWhenWriteFails() throws Exception {
+        String id = manager.submit("报表", job -> {
+            PoiExcelUtil excel = PoiExcelUtil.newStreamingExcel(1);
+            for (int i = 0; i < 10; i++) {
+                excel.write((long) i).nextRow();
+            }
+            // 删除已刷出行的临时文件，写出工作簿时读取失败
+            excel.dispose();
+            return excel;
+        }).getData();
+        ExportJob job = await(id);
+        assertEquals(ExportJob.State.FAILED, job.getState());
+        assertEquals("导出失败", job.getMsg());
+        assertFalse(new File(folder.getRoot(), id + ".xlsx").exists());
+    }
+
+    @Test
+    public void exportReturnsNullOnWriteFailure() throws IOException {
+        PoiExcelUtil excel = PoiExcelUtil.newStreamingExcel(1);
+        excel.write(1L).nextRow().write(2L).nextRow();
+        excel.dispose();
+        File target = new File(folder.getRoot(), "broken");
+        assertNull(excel.export(target.getPath()));
+        assertFalse(new File(target.getPath() + ".xlsx").exists());
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExportJobManager.ExportTask blocking = job -> {
+            started.countDown();
+            release.await();
+            return PoiExcelUtil.newExcel();
+        };
+        String running = manager.submit("a", blocking).getData();
+        started.await();
+        assertTrue(manager.submit("b", blocking).getIsSuccess());
+        assertEquals(1, manager.queued());
+        R<String> rejected = manager.submit("c", blocking);
+        assertFalse(rejected.getIsSuccess());
+        release.countDown();
+        assertEquals(ExportJob.State.SUCCESS, await(running).getState());
+    }
+
+    @Test
+    public void removesExpiredJobs() throws Exception {
+        ExportJobManager shortLived = new ExportJobManager(1, 1, folder.getRoot(), 10, TimeUnit.MILLISECONDS);
+        try {
+            String id = shortLived.submit("a", job -> PoiExcelUtil.newExcel()).getData();
+            File file = new File(folder.getRoot(), id + ".xlsx");
+            for (int i = 0; i < 300 && shortLived.status(id).getIsSuccess(); i++) {
+                Thread.sleep(10);
+            }
+            assertFalse(shortLived.status(id).getIsSuccess());
+            assertFalse(file.exists());
+        } finally {
+            shortLived.shutdown();
+        }
+    }
+}
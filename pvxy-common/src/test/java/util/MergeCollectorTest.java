@@ -0,0 +1,134 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MergeCollectorTest {
+
+    @Test
+    public void registersRegionsOnXssfSheet() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 1));
+            MergeCollector merges = new MergeCollector();
+            merges.add(1, 2, 0, 0);
+            merges.add(1, 1, 1, 3);
+            merges.register(sheet);
+            assertEquals(3, sheet.getNumMergedRegions());
+            assertEquals("A2:A3", sheet.getMergedRegion(1).formatAsString());
+            assertEquals("B2:D2", sheet.getMergedRegion(2).formatAsString());
+            assertEquals(0, merges.size());
+        }
+    }
+
+    @Test
+    public void registersRegionsOnStreamingSheet() throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(10);
+        try {
+            Sheet sheet = workbook.createSheet();
+            MergeCollector merges = new MergeCollector();
+            merges.add(0, 3, 0, 0);
+            merges.register(sheet);
+            assertEquals(1, workbook.getXSSFWorkbook().getSheetAt(0).getNumMergedRegions());
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    @Test
+    public void reportsOverlapWithExistingRegion() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            sheet.addMergedRegion(new CellRangeAddress(0, 5, 0, 0));
+            MergeCollector merges = new MergeCollector();
+            merges.add(3, 3, 0, 2);
+            try {
+                merges.register(sheet);
+                fail();
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("A1:A6 与 A4:C4"));
+            }
+            assertEquals(1, sheet.getNumMergedRegions());
+        }
+    }
+
+    @Test
+    public void limitsOverlapReport() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            MergeCollector merges = new MergeCollector();
+            for (int i = 0; i < 30; i++) {
+                merges.add(i, i + 1, 0, 1);
+            }
+            try {
+                merges.register(workbook.createSheet());
+                fail();
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage(), e.getMessage().endsWith("等共29处"));
+            }
+        }
+    }
+
+    @Test
+    public void sweepMatchesPairwiseCheck() throws IOException {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(10);
+            int[][] regions = new int[n][];
+            MergeCollector merges = new MergeCollector();
+            for (int i = 0; i < n; i++) {
+                int row = random.nextInt(20);
+                int col = random.nextInt(10);
+                regions[i] = new int[]{row, row + random.nextInt(4), col, col + 1 + random.nextInt(3)};
+                merges.add(regions[i][0], regions[i][1], regions[i][2], regions[i][3]);
+            }
+            boolean overlap = false;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    overlap |= regions[i][0] <= regions[j][1] && regions[j][0] <= regions[i][1]
+                            && regions[i][2] <= regions[j][3] && regions[j][2] <= regions[i][3];
+                }
+            }
+            try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+                merges.register(workbook.createSheet());
+                assertTrue(!overlap);
+            } catch (IllegalStateException e) {
+                assertTrue(overlap);
+            }
+        }
+    }
+
+    @Test
+    public void shiftsRegionsInsideRange() throws IOException {
+        MergeCollector merges = new MergeCollector();
+        merges.add(0, 1, 0, 1);
+        merges.add(5, 6, 0, 1);
+        merges.shift(2, 10, 3);
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            merges.register(sheet);
+            assertEquals("A1:B2", sheet.getMergedRegion(0).formatAsString());
+            assertEquals("A9:B10", sheet.getMergedRegion(1).formatAsString());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSingleCell() {
+        new MergeCollector().add(1, 1, 2, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsReversedRange() {
+        MergeCollector.check(3, 1, 0, 1);
+    }
+}
@@ -0,0 +1,101 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class MultiSheetBuilderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void fillsSheetsInParallel() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MultiSheetBuilder builder = PoiExcelUtil.newMultiSheetExcel(50);
+            String[] names = {"华东", "华南", "华北", "西南"};
+            for (String name : names) {
+                builder.sheet(name, s -> {
+                    s.title("机构", "序号").nextRow();
+                    for (int i = 1; i <= 2000; i++) {
+                        s.write(name, (long) i).nextRow();
+                    }
+                    s.merge(2001, 2001, 0, 1);
+                });
+            }
+            PoiExcelUtil excel = builder.build(pool);
+            File file = excel.export(new File(folder.getRoot(), "multi").getPath());
+
+            try (InputStream in = new FileInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+                assertEquals(names.length, workbook.getNumberOfSheets());
+                for (int i = 0; i < names.length; i++) {
+                    Sheet sheet = workbook.getSheetAt(i);
+                    assertEquals(names[i], sheet.getSheetName());
+                    assertEquals(2000, sheet.getLastRowNum());
+                    assertEquals(names[i], sheet.getRow(2000).getCell(0).getStringCellValue());
+                    assertEquals(2000d, sheet.getRow(2000).getCell(1).getNumericCellValue(), 0d);
+                    assertEquals(1, sheet.getNumMergedRegions());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void rethrowsOriginalFailure() {
+        IllegalArgumentException cause = new IllegalArgumentException("数据错误");
+        try {
+            PoiExcelUtil.newMultiSheetExcel(10)
+                    .sheet("a", s -> s.write("ok"))
+                    .sheet("b", s -> {
+                        throw cause;
+                    })
+                    .build(new ForkJoinPool(2));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertSame(cause, e);
+        }
+    }
+
+    @Test
+    public void wrapsCheckedFailure() {
+        try {
+            PoiExcelUtil.newMultiSheetExcel(10)
+                    .sheet("a", s -> {
+                        throw new IOException("读取失败");
+                    })
+                    .build();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("填充sheet失败：a", e.getMessage());
+            assertEquals("读取失败", e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicateName() {
+        PoiExcelUtil.newMultiSheetExcel(10).sheet("a", s -> {
+        }).sheet("a", s -> {
+        });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsEmptyBuilder() {
+        PoiExcelUtil.newMultiSheetExcel(10).build();
+    }
+}
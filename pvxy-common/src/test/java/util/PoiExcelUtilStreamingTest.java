@@ -0,0 +1,86 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PoiExcelUtilStreamingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesAllRowsThroughWindow() throws Exception {
+        PoiExcelUtil excel = PoiExcelUtil.newStreamingExcel(10);
+        assertTrue(excel.isStreaming());
+        excel.title("编号", "名称").nextRow();
+        for (int i = 1; i <= 1000; i++) {
+            excel.write((long) i, "row" + i).nextRow();
+        }
+        File file = excel.export(new File(folder.getRoot(), "stream").getPath());
+
+        try (InputStream in = new FileInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(1000, sheet.getLastRowNum());
+            assertEquals("编号", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1000d, sheet.getRow(1000).getCell(0).getNumericCellValue(), 0d);
+            assertEquals("row500", sheet.getRow(500).getCell(1).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void readsInsideWindow() {
+        PoiExcelUtil excel = PoiExcelUtil.newStreamingExcel(10);
+        for (int i = 0; i < 20; i++) {
+            excel.write("v" + i).nextRow();
+        }
+        assertEquals("v15", excel.read(15, 0));
+        excel.dispose();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsReadOutsideWindow() {
+        PoiExcelUtil excel = PoiExcelUtil.newStreamingExcel(10);
+        for (int i = 0; i < 20; i++) {
+            excel.write("v" + i).nextRow();
+        }
+        try {
+            excel.read(0, 0);
+        } finally {
+            excel.dispose();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsWriteOutsideWindow() {
+        PoiExcelUtil excel = PoiExcelUtil.newStreamingExcel(10);
+        for (int i = 0; i < 20; i++) {
+            excel.write("v" + i).nextRow();
+        }
+        try {
+            excel.write(0, 1, "late");
+        } finally {
+            excel.dispose();
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rejectsInsertRows() {
+        PoiExcelUtil.newStreamingExcel(10).insertRows(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyWindow() {
+        PoiExcelUtil.newStreamingExcel(0);
+    }
+}
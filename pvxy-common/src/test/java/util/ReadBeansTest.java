@@ -0,0 +1,174 @@
+package util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReadBeansTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Item {
+        @ExcelColumn(index = 0)
+        private String name;
+
+        @ExcelColumn(index = 1)
+        private long count;
+
+        @ExcelColumn(index = 2)
+        private BigDecimal price;
+
+        @ExcelColumn(index = 3)
+        private LocalDate day;
+
+        @ExcelColumn(index = 4)
+        private LocalDateTime time;
+
+        @ExcelColumn(index = 5)
+        private Integer sheet;
+    }
+
+    private File workbook(int sheets, int rows) throws IOException {
+        File file = folder.newFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            CellStyle date = workbook.createCellStyle();
+            date.setDataFormat((short) 14);
+            CellStyle thousands = workbook.createCellStyle();
+            thousands.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+            for (int s = 0; s < sheets; s++) {
+                Sheet sheet = workbook.createSheet("s" + s);
+                sheet.createRow(0).createCell(0).setCellValue("名称");
+                for (int r = 1; r <= rows; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("n" + s + "-" + r);
+                    row.createCell(1).setCellValue(1000d + r);
+                    row.getCell(1).setCellStyle(thousands);
+                    row.createCell(2).setCellValue(r + 0.25d);
+                    row.createCell(3).setCellValue(LocalDate.of(2020, 1, r).atStartOfDay());
+                    row.getCell(3).setCellStyle(date);
+                    row.createCell(4).setCellValue("2020-01-0" + (r % 9 + 1) + " 08:30:00");
+                    row.createCell(5).setCellValue(s);
+                }
+                // 空行不产生bean
+                sheet.createRow(rows + 1);
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    @Test
+    public void readsAllSheetsInParallelInOrder() throws IOException {
+        File file = workbook(6, 20);
+        List<Item> items = PoiExcelUtil.readAllBeans(file, Item.class, 1, new ForkJoinPool(4));
+        assertEquals(120, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            int s = i / 20;
+            int r = i % 20 + 1;
+            assertEquals("n" + s + "-" + r, item.name);
+            assertEquals(1000L + r, item.count);
+            assertEquals(BigDecimal.valueOf(r + 0.25d), item.price);
+            assertEquals(LocalDate.of(2020, 1, r), item.day);
+            assertEquals(LocalDateTime.of(2020, 1, r % 9 + 1, 8, 30), item.time);
+            assertEquals(Integer.valueOf(s), item.sheet);
+        }
+    }
+
+    @Test
+    public void defaultPoolIsNotCommonPool() throws Exception {
+        File file = workbook(3, 5);
+        // 公共池被占满时默认重载仍能完成，且在独立的 excel-read 线程中执行
+        int parallelism = ForkJoinPool.commonPool().getParallelism();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            ForkJoinPool.commonPool().execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(15, PoiExcelUtil.readAllBeans(file, Item.class).size());
+        } finally {
+            release.countDown();
+        }
+        boolean found = false;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            found |= thread.getName().startsWith("excel-read-");
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void matchesWorkbookPath() throws IOException {
+        File file = workbook(3, 5);
+        List<Item> streamed;
+        try (InputStream in = new FileInputStream(file)) {
+            streamed = PoiExcelUtil.readAllBeans(in, Item.class);
+        }
+        List<Item> loaded = PoiExcelUtil.loadFile(file).readAllBeans(Item.class);
+        assertEquals(loaded.size(), streamed.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(loaded.get(i).name, streamed.get(i).name);
+            assertEquals(loaded.get(i).count, streamed.get(i).count);
+            assertEquals(loaded.get(i).price, streamed.get(i).price);
+            assertEquals(loaded.get(i).day, streamed.get(i).day);
+            assertEquals(loaded.get(i).time, streamed.get(i).time);
+        }
+    }
+
+    @Test
+    public void readsSingleSheet() {
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.write("a", 3L).nextRow().write("b", "4");
+        List<Item> items = excel.readBeans(Item.class, 0);
+        assertEquals(2, items.size());
+        assertEquals(4L, items.get(1).count);
+        assertNull(items.get(1).price);
+    }
+
+    @Test
+    public void reportsRowAndColumnOfBadValue() throws IOException {
+        File file = folder.newFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            workbook.createSheet().createRow(3).createCell(1).setCellValue("abc");
+            workbook.write(out);
+        }
+        try {
+            PoiExcelUtil.readAllBeans(file, Item.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("第4行第2列[count]数据格式错误"));
+        }
+    }
+}
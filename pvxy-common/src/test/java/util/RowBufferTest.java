@@ -0,0 +1,117 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RowBufferTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void matchesListModelAcrossChunks() {
+        RowBuffer buffer = new RowBuffer();
+        List<RowBuffer.BufferedRow> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            int size = expected.size();
+            int rownum = random.nextInt(size + 3);
+            if (random.nextInt(3) == 0 && buffer.isCreated(rownum)) {
+                buffer.insert(rownum);
+                RowBuffer.BufferedRow inserted = new RowBuffer.BufferedRow();
+                expected.add(rownum, inserted);
+            } else {
+                buffer.put(rownum, 0, "v" + i, null, RowBuffer.NO_WRAP, null);
+                while (expected.size() <= rownum) {
+                    expected.add(null);
+                }
+                if (expected.get(rownum) == null) {
+                    expected.set(rownum, new RowBuffer.BufferedRow());
+                }
+                expected.get(rownum).values = new Object[]{"v" + i};
+            }
+        }
+        List<RowBuffer.BufferedRow> rows = buffer.rows();
+        assertEquals(expected.size(), rows.size());
+        assertTrue(expected.size() > RowBuffer.CHUNK_SIZE * 4);
+        int created = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            RowBuffer.BufferedRow row = rows.get(i);
+            if (expected.get(i) == null) {
+                assertNull(row);
+                continue;
+            }
+            // 插入的空行没有值，写入的行比较最后一次写入的值
+            Object[] values = expected.get(i).values;
+            assertEquals(values.length == 0 ? null : values[0], row.values.length == 0 ? null : row.values[0]);
+            assertEquals(buffer.isCreated(i), row.created);
+            created++;
+        }
+        assertEquals(created, buffer.count());
+    }
+
+    @Test
+    public void mergesFollowInsertedRows() {
+        RowBuffer buffer = new RowBuffer();
+        for (int i = 0; i < RowBuffer.CHUNK_SIZE * 3; i++) {
+            buffer.put(i, 0, i, null, RowBuffer.NO_WRAP, null);
+        }
+        buffer.merge(600, 601, 0, 1);
+        RowBuffer.BufferedRow anchor = buffer.row(600);
+        for (int i = 0; i < RowBuffer.CHUNK_SIZE * 2; i++) {
+            buffer.insert(10);
+        }
+        buffer.assignPositions();
+        assertSame(anchor, buffer.rows().get(600 + RowBuffer.CHUNK_SIZE * 2));
+        RowBuffer.Merge merge = buffer.merges().get(0);
+        assertEquals(600 + RowBuffer.CHUNK_SIZE * 2, merge.firstRow());
+        assertEquals(601 + RowBuffer.CHUNK_SIZE * 2, merge.lastRow());
+        assertFalse(buffer.isCreated(RowBuffer.CHUNK_SIZE * 5 + 1));
+    }
+
+    @Test
+    public void exportsInsertedRowsInOrder() throws Exception {
+        PoiExcelUtil excel = PoiExcelUtil.newBufferedExcel();
+        for (int i = 0; i < 1000; i++) {
+            excel.write("r" + i).nextRow();
+        }
+        excel.insertRows(500);
+        excel.write(500, 0, "小计");
+        excel.merge(700, 701, 0, 1);
+        File file = excel.export(new File(folder.getRoot(), "buffered").getPath());
+
+        try (InputStream in = new FileInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(1000, sheet.getLastRowNum());
+            assertEquals("r499", sheet.getRow(499).getCell(0).getStringCellValue());
+            assertEquals("小计", sheet.getRow(500).getCell(0).getStringCellValue());
+            assertEquals("r500", sheet.getRow(501).getCell(0).getStringCellValue());
+            CellRangeAddress region = sheet.getMergedRegion(0);
+            assertEquals(700, region.getFirstRow());
+            assertEquals(701, region.getLastRow());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rejectsNextSheet() {
+        PoiExcelUtil.newBufferedExcel().nextSheet();
+    }
+}
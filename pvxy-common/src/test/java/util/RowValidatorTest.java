@@ -0,0 +1,166 @@
+package util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import vo.R;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RowValidatorTest {
+
+    private static final RowValidator VALIDATOR = RowValidator.builder()
+            .column(0, "数量").required().integer()
+            .column(1, "金额").decimal().range(0, 5000)
+            .column(2, "比例").decimal().range(0, 1)
+            .column(3, "日期").required().date()
+            .build();
+
+    /**
+     * 表头 + 数据行：A列千分位整数，B列千分位两位小数，C列百分比，D列日期（格式14，显示为 1/15/20）
+     */
+    private static byte[] workbook(int rows, Object[]... overrides) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            XSSFSheet sheet = workbook.createSheet();
+            CellStyle thousands = style(workbook, 3);
+            CellStyle money = style(workbook, 4);
+            CellStyle percent = style(workbook, 10);
+            CellStyle date = style(workbook, 14);
+            Row head = sheet.createRow(0);
+            head.createCell(0).setCellValue("数量");
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(1234);
+                row.getCell(0).setCellStyle(thousands);
+                row.createCell(1).setCellValue(1234.5);
+                row.getCell(1).setCellStyle(money);
+                row.createCell(2).setCellValue(0.125);
+                row.getCell(2).setCellStyle(percent);
+                row.createCell(3).setCellValue(LocalDate.of(2020, 1, 15).atStartOfDay());
+                row.getCell(3).setCellStyle(date);
+            }
+            for (Object[] override : overrides) {
+                Row row = sheet.getRow((Integer) override[0]);
+                row.getCell((Integer) override[1]).setCellValue((String) override[2]);
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static CellStyle style(XSSFWorkbook workbook, int format) {
+        CellStyle style = workbook.createCellStyle();
+        style.setDataFormat((short) format);
+        return style;
+    }
+
+    @Test
+    public void validatesRawValuesOfFormattedCells() throws IOException {
+        List<Integer> passed = new ArrayList<>();
+        RowValidator.Validation validation = VALIDATOR.validate(new ByteArrayInputStream(workbook(3)), row -> {
+            passed.add(row.getRowNum());
+            assertEquals("1,234", row.read(0));
+            return true;
+        });
+        assertFalse(validation.getErrors().toString(), validation.hasErrors());
+        assertEquals(3, validation.getRows());
+        assertEquals(3, passed.size());
+    }
+
+    @Test
+    public void validatesTextCells() throws IOException {
+        byte[] bytes = workbook(4,
+                new Object[]{1, 0, " 42 "},
+                new Object[]{2, 0, "1.5"},
+                new Object[]{3, 3, "2020/1/15"},
+                new Object[]{4, 3, "15.01.2020"},
+                new Object[]{4, 1, "abc"});
+        RowValidator.Validation validation = VALIDATOR.validate(new ByteArrayInputStream(bytes), null);
+        List<String> errors = new ArrayList<>();
+        for (RowError error : validation.getErrors()) {
+            errors.add(error.toString());
+        }
+        assertEquals(3, errors.size());
+        assertEquals("第3行第1列[数量]必须是整数", errors.get(0));
+        assertEquals("第5行第2列[金额]必须是数字", errors.get(1));
+        assertEquals("第5行第4列[日期]不是有效日期", errors.get(2));
+    }
+
+    @Test
+    public void readsTextDatesThatPassValidation() throws IOException {
+        byte[] bytes = workbook(4,
+                new Object[]{1, 3, "2020/1/5"},
+                new Object[]{2, 3, "20200105"},
+                new Object[]{3, 3, "2020-1-5"},
+                new Object[]{4, 3, "2020-01-05 08:30:00"});
+        List<LocalDateTime> dates = new ArrayList<>();
+        RowValidator.Validation validation = VALIDATOR.validate(new ByteArrayInputStream(bytes), row -> {
+            dates.add(row.readLocalDateTime(3));
+            return true;
+        });
+        assertFalse(validation.getErrors().toString(), validation.hasErrors());
+        assertEquals(LocalDate.of(2020, 1, 5).atStartOfDay(), dates.get(0));
+        assertEquals(LocalDate.of(2020, 1, 5).atStartOfDay(), dates.get(1));
+        assertEquals(LocalDate.of(2020, 1, 5).atStartOfDay(), dates.get(2));
+        assertEquals(LocalDateTime.of(2020, 1, 5, 8, 30), dates.get(3));
+    }
+
+    @Test
+    public void checksRangeOnRawNumbers() throws IOException {
+        RowValidator validator = RowValidator.builder()
+                .column(1, "金额").range(0, 1000)
+                .column(2, "比例").range(0, 0.1)
+                .column(3, "日期").integer()
+                .build();
+        RowValidator.Validation validation = validator.validate(new ByteArrayInputStream(workbook(1)), null);
+        assertEquals(3, validation.getErrors().size());
+        assertEquals("必须在0到1000之间", validation.getErrors().get(0).getMessage());
+        assertEquals("必须在0到0.1之间", validation.getErrors().get(1).getMessage());
+        // 日期单元格不当作整数
+        assertEquals("必须是整数", validation.getErrors().get(2).getMessage());
+    }
+
+    @Test
+    public void truncatesOnlyWhenErrorsAreDropped() throws IOException {
+        RowValidator validator = RowValidator.builder()
+                .maxErrors(2)
+                .column(0, "数量").integer()
+                .build();
+        // 恰好2处错误：全部读完，不算截断
+        RowValidator.Validation exact = validator.validate(new ByteArrayInputStream(workbook(5,
+                new Object[]{1, 0, "x"}, new Object[]{2, 0, "y"})), null);
+        assertEquals(2, exact.getErrors().size());
+        assertFalse(exact.isTruncated());
+        assertEquals(5, exact.getRows());
+        R<Object> r = exact.toR();
+        assertEquals("导入数据校验失败，共2处错误", r.getMsg());
+
+        // 第3处错误被丢弃，随即停止解析
+        RowValidator.Validation over = validator.validate(new ByteArrayInputStream(workbook(5,
+                new Object[]{1, 0, "x"}, new Object[]{2, 0, "y"}, new Object[]{3, 0, "z"})), null);
+        assertEquals(2, over.getErrors().size());
+        assertTrue(over.isTruncated());
+        assertEquals(3, over.getRows());
+        assertEquals("导入数据校验失败，错误超过2处，请修改后重新上传", over.<Object>toR().getMsg());
+    }
+
+    @Test
+    public void appliesTextRulesToDisplayValue() throws IOException {
+        RowValidator validator = RowValidator.builder()
+                .column(0, "数量").maxLength(5).in("1,234")
+                .build();
+        assertFalse(validator.validate(new ByteArrayInputStream(workbook(1)), null).hasErrors());
+    }
+}
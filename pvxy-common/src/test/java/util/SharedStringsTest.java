@@ -0,0 +1,49 @@
+package util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SharedStringsTest {
+
+    @Test
+    public void deduplicatesInInsertionOrder() {
+        SharedStrings strings = new SharedStrings();
+        assertEquals(0, strings.indexOf("a"));
+        assertEquals(1, strings.indexOf("b"));
+        assertEquals(0, strings.indexOf(new String("a")));
+        assertEquals(2, strings.size());
+        assertEquals(3, strings.count());
+        assertEquals("b", strings.get(1));
+    }
+
+    @Test
+    public void separatesEqualHashCodes() {
+        SharedStrings strings = new SharedStrings();
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        int first = strings.indexOf("Aa");
+        int second = strings.indexOf("BB");
+        assertNotEquals(first, second);
+        assertEquals(first, strings.indexOf("Aa"));
+        assertEquals(second, strings.indexOf("BB"));
+    }
+
+    @Test
+    public void keepsIndexesAcrossRehash() {
+        SharedStrings strings = new SharedStrings();
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            String value = "v" + (i % 30000);
+            int index = strings.indexOf(value);
+            Integer previous = expected.putIfAbsent(value, index);
+            assertEquals(previous == null ? index : previous, index);
+        }
+        assertEquals(30000, strings.size());
+        assertEquals(100000, strings.count());
+        expected.forEach((value, index) -> assertEquals(value, strings.get(index)));
+    }
+}
@@ -0,0 +1,124 @@
+package util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SheetTemplateTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 第1行标题，第2行表头（B2 待填），第3行标记行：A列文本、B列数值、C列公式 B*2、D列累计 SUM($B$3:B)，第4行是会被丢弃的示例数据
+     */
+    private File template() throws IOException {
+        File file = folder.newFile("template.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("data");
+            sheet.createRow(0).createCell(0).setCellValue("月度报表");
+            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 2));
+            CellStyle head = workbook.createCellStyle();
+            head.setFillForegroundColor(IndexedColors.YELLOW.getIndex());
+            head.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            Row second = sheet.createRow(1);
+            second.createCell(0).setCellValue("日期");
+            second.createCell(1).setCellStyle(head);
+            Row marker = sheet.createRow(2);
+            marker.createCell(0).setCellValue("${data}");
+            marker.createCell(1);
+            marker.createCell(2).setCellFormula("B3*2");
+            marker.createCell(3).setCellFormula("SUM($B$3:B3)");
+            sheet.createRow(3).createCell(0).setCellValue("示例");
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    @Test
+    public void fillsRowsFromMarker() throws IOException {
+        PoiExcelUtil excel = PoiExcelUtil.loadTemplate(template(), "${data}", 10);
+        assertEquals(2, excel.getCurrentRowNum());
+        for (int i = 1; i <= 50; i++) {
+            excel.write("r" + i, (long) i).nextRow();
+        }
+        try (Workbook workbook = export(excel)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("月度报表", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1, sheet.getNumMergedRegions());
+            assertEquals("r1", sheet.getRow(2).getCell(0).getStringCellValue());
+            assertEquals("B3*2", sheet.getRow(2).getCell(2).getCellFormula());
+            assertEquals("r50", sheet.getRow(51).getCell(0).getStringCellValue());
+            assertEquals("B52*2", sheet.getRow(51).getCell(2).getCellFormula());
+            // 各行共用解析结果，平移互不影响；绝对引用不变
+            assertEquals("SUM($B$3:B3)", sheet.getRow(2).getCell(3).getCellFormula());
+            assertEquals("SUM($B$3:B4)", sheet.getRow(3).getCell(3).getCellFormula());
+            assertEquals("SUM($B$3:B52)", sheet.getRow(51).getCell(3).getCellFormula());
+            assertEquals(51, sheet.getLastRowNum());
+        }
+    }
+
+    @Test
+    public void writesHeadRowsAboveMarker() throws IOException {
+        PoiExcelUtil excel = PoiExcelUtil.loadTemplate(template(), "${data}", 10);
+        for (int i = 1; i <= 50; i++) {
+            excel.write("r" + i, (long) i).nextRow();
+        }
+        // 数据行已刷出窗口后仍可填写表头
+        excel.write(1, 1, "2020-01");
+        excel.write(0, 4, "新增");
+        assertEquals("2020-01", excel.read(1, 1));
+        assertEquals("日期", excel.read(1, 0));
+        assertNull(excel.read(1, 5));
+        try (Workbook workbook = export(excel)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("2020-01", sheet.getRow(1).getCell(1).getStringCellValue());
+            // 沿用模板中的表头样式
+            assertEquals(FillPatternType.SOLID_FOREGROUND, sheet.getRow(1).getCell(1).getCellStyle().getFillPattern());
+            assertEquals("新增", sheet.getRow(0).getCell(4).getStringCellValue());
+            assertEquals("r50", sheet.getRow(51).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingMarker() throws IOException {
+        PoiExcelUtil.loadTemplate(template(), "${none}", 10);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rejectsSheetSwitch() throws IOException {
+        PoiExcelUtil excel = PoiExcelUtil.loadTemplate(template(), "${data}", 10);
+        try {
+            excel.nextSheet();
+        } finally {
+            excel.dispose();
+        }
+    }
+
+    private Workbook export(PoiExcelUtil excel) throws IOException {
+        File file = excel.export(new File(folder.getRoot(), "filled").getPath());
+        assertTrue(file.exists());
+        try (InputStream in = new FileInputStream(file)) {
+            return new XSSFWorkbook(in);
+        }
+    }
+}
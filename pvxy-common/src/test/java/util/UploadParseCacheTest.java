@@ -0,0 +1,181 @@
+package util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UploadParseCacheTest {
+
+    private static final long TTL = UploadParseCache.DEFAULT_SPILL_TTL;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A列文本，B列千分位数值，C列百分比，D列日期（格式14），E列仅部分行有数值
+     */
+    private static byte[] workbook(boolean date1904, String name) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            workbook.getCTWorkbook().addNewWorkbookPr().setDate1904(date1904);
+            XSSFSheet sheet = workbook.createSheet();
+            CellStyle thousands = workbook.createCellStyle();
+            thousands.setDataFormat((short) 3);
+            CellStyle percent = workbook.createCellStyle();
+            percent.setDataFormat((short) 10);
+            CellStyle date = workbook.createCellStyle();
+            date.setDataFormat((short) 14);
+            for (int i = 0; i < 100; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(name + i % 3);
+                row.createCell(1).setCellValue(1234 + i);
+                row.getCell(1).setCellStyle(thousands);
+                row.createCell(2).setCellValue(0.125);
+                row.getCell(2).setCellStyle(percent);
+                row.createCell(3).setCellValue(LocalDate.of(2020, 1, 15).plusDays(i).atStartOfDay());
+                row.getCell(3).setCellStyle(date);
+                if (i % 2 == 0) {
+                    row.createCell(4).setCellValue(i);
+                } else {
+                    row.createCell(4).setCellValue("x" + i);
+                }
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    @Test
+    public void replaysTypedValuesFromMemoryAndSpill() throws IOException {
+        byte[] bytes = workbook(true, "a");
+        List<String> direct = snapshot(null, bytes);
+        // 内存命中
+        UploadParseCache cache = new UploadParseCache(1 << 20);
+        assertEquals(direct, snapshot(cache, bytes));
+        assertEquals(1, cache.size());
+        assertEquals(direct, snapshot(cache, bytes));
+        // 超过内存上限直接溢出，第二次从溢出文件加载
+        UploadParseCache spilling = new UploadParseCache(1, folder.newFolder("spill"), Long.MAX_VALUE, TTL);
+        assertEquals(direct, snapshot(spilling, bytes));
+        assertTrue(spilling.spilledBytes() > 0);
+        assertEquals(direct, snapshot(spilling, bytes));
+        assertTrue(direct.get(0).contains("2020-01-15"));
+        assertTrue(direct.get(0).contains("1234.0"));
+    }
+
+    @Test
+    public void deletesSpillFileOnReadBack() throws IOException {
+        File dir = folder.newFolder("spill");
+        UploadParseCache cache = new UploadParseCache(1 << 20, dir);
+        byte[] first = workbook(false, "a");
+        snapshot(cache, first);
+        // 仅够放一个结果，第二个文件挤出第一个
+        UploadParseCache small = new UploadParseCache(cache.bytes() + 1, dir);
+        snapshot(small, first);
+        snapshot(small, workbook(false, "b"));
+        assertEquals(1, spillFiles(dir));
+        snapshot(small, first);
+        // 第一个读回内存并删除文件，第二个被挤出写入文件
+        assertEquals(1, small.size());
+        assertEquals(1, spillFiles(dir));
+    }
+
+    @Test
+    public void boundsSpillBytes() throws IOException {
+        File dir = folder.newFolder("spill");
+        UploadParseCache probe = new UploadParseCache(1, dir, Long.MAX_VALUE, TTL);
+        snapshot(probe, workbook(false, "a"));
+        long one = probe.spilledBytes();
+        probe.close();
+
+        UploadParseCache cache = new UploadParseCache(1, dir, one * 2, TTL);
+        for (int i = 0; i < 5; i++) {
+            snapshot(cache, workbook(false, String.valueOf((char) ('b' + i))));
+        }
+        // 名称长度相同，每个溢出文件大小相同
+        assertTrue(cache.spilledBytes() <= one * 2);
+        assertEquals(2, spillFiles(dir));
+    }
+
+    @Test
+    public void expiresSpillFiles() throws Exception {
+        File dir = folder.newFolder("spill");
+        UploadParseCache cache = new UploadParseCache(1, dir, Long.MAX_VALUE, 200);
+        byte[] bytes = workbook(false, "a");
+        List<String> direct = snapshot(cache, bytes);
+        assertEquals(1, spillFiles(dir));
+        Thread.sleep(300);
+        // 写入新文件时删除过期文件
+        snapshot(cache, workbook(false, "b"));
+        assertEquals(1, spillFiles(dir));
+        // 过期后重新解析，结果不变
+        assertEquals(direct, snapshot(cache, bytes));
+    }
+
+    @Test
+    public void cleansUpOnCloseAndStartup() throws IOException {
+        File dir = folder.newFolder("spill");
+        File other = new File(dir, "keep.bin");
+        assertTrue(other.createNewFile());
+        UploadParseCache cache = new UploadParseCache(1, dir, Long.MAX_VALUE, TTL);
+        snapshot(cache, workbook(false, "a"));
+        assertEquals(1, spillFiles(dir));
+        // 模拟上次进程遗留的文件
+        new UploadParseCache(1, dir, Long.MAX_VALUE, TTL);
+        assertEquals(0, spillFiles(dir));
+
+        snapshot(cache, workbook(false, "b"));
+        cache.close();
+        assertEquals(0, spillFiles(dir));
+        assertEquals(0, cache.spilledBytes());
+        assertTrue(other.exists());
+    }
+
+    /**
+     * 每行转成 文本|是否数值|是否日期|数值|日期 的字符串，cache为null时直接读取
+     */
+    private static List<String> snapshot(UploadParseCache cache, byte[] bytes) throws IOException {
+        List<String> rows = new ArrayList<>();
+        RowHandler handler = row -> {
+            StringBuilder sb = new StringBuilder().append(row.getRowNum());
+            for (int c = 0; c < row.size(); c++) {
+                sb.append('|').append(row.read(c)).append(',').append(row.isNumeric(c)).append(',').append(row.isDate(c));
+                if (row.isNumeric(c)) {
+                    sb.append(',').append(row.getNumber(c)).append(',').append(row.readLocalDate(c));
+                }
+            }
+            rows.add(sb.toString());
+            return true;
+        };
+        try (InputStream in = new ByteArrayInputStream(bytes)) {
+            if (cache == null) {
+                PoiExcelUtil.streamRows(in, handler);
+            } else {
+                cache.streamRows(in, 0, handler);
+            }
+        }
+        assertFalse(rows.isEmpty());
+        return rows;
+    }
+
+    private static int spillFiles(File dir) {
+        String[] names = dir.list((d, name) -> name.endsWith(".bin") && !name.equals("keep.bin"));
+        return names == null ? 0 : names.length;
+    }
+}
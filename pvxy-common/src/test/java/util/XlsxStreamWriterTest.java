@@ -0,0 +1,281 @@
+package util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class XlsxStreamWriterTest {
+
+    public static class Line {
+        @ExcelColumn(index = 0, title = "编号")
+        private Long id;
+
+        @ExcelColumn(index = 1, title = "状态")
+        private String status;
+
+        Line(long id) {
+            this.id = id;
+            this.status = id % 2 == 0 ? "正常" : "停用";
+        }
+    }
+
+    private static class Ratio {
+        final int percent;
+
+        Ratio(int percent) {
+            this.percent = percent;
+        }
+    }
+
+    private static XSSFWorkbook open(byte[] bytes) throws IOException {
+        return new XSSFWorkbook(new ByteArrayInputStream(bytes));
+    }
+
+    @Test
+    public void writesReadableWorkbook() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(out)) {
+            writer.setWidth(0, 20);
+            writer.setStorage(1, StringStorage.INLINE);
+            writer.nextRow();
+            writer.write(0, "a<b>&\"c\"\u0001");
+            writer.write(1, "inline");
+            writer.write(2, 12L);
+            writer.write(3, new BigDecimal("1.25"), "0.00");
+            writer.write(4, true);
+            writer.write(5, LocalDate.of(2020, 1, 2));
+            writer.nextRow();
+            writer.write(0, Double.NaN);
+            writer.write(1, Double.POSITIVE_INFINITY);
+            writer.write(2, Float.NEGATIVE_INFINITY);
+            writer.write(3, 2.5d);
+        }
+        try (XSSFWorkbook workbook = open(out.toByteArray())) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Row first = sheet.getRow(0);
+            assertEquals("a<b>&\"c\"", first.getCell(0).getStringCellValue());
+            assertEquals("inline", first.getCell(1).getStringCellValue());
+            assertEquals(12d, first.getCell(2).getNumericCellValue(), 0d);
+            assertEquals("0.00", first.getCell(3).getCellStyle().getDataFormatString());
+            assertTrue(first.getCell(4).getBooleanCellValue());
+            assertEquals("2020-01-02", first.getCell(5).getStringCellValue());
+            assertEquals(20 * 256, sheet.getColumnWidth(0));
+
+            Row second = sheet.getRow(1);
+            assertError(FormulaError.NUM, second.getCell(0));
+            assertError(FormulaError.DIV0, second.getCell(1));
+            assertError(FormulaError.DIV0, second.getCell(2));
+            assertEquals(2.5d, second.getCell(3).getNumericCellValue(), 0d);
+        }
+    }
+
+    @Test
+    public void usesRegisteredWriters() throws IOException {
+        // 与非流式导出共用 CellWriters 注册表，自定义类型的值和默认格式一致
+        CellWriters.register(Ratio.class, "0%", (cell, value) -> cell.setCellValue(value.percent / 100d));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(out)) {
+            writer.nextRow();
+            writer.write(0, new Ratio(35));
+            writer.write(1, new Ratio(50), "0.0%");
+            writer.write(2, new StringBuilder("sb"));
+        }
+        PoiExcelUtil excel = PoiExcelUtil.newExcel();
+        excel.write(0, 0, new Ratio(35));
+        Cell expected = excel.getSheet().getRow(0).getCell(0);
+        try (XSSFWorkbook workbook = open(out.toByteArray())) {
+            Row row = workbook.getSheetAt(0).getRow(0);
+            assertEquals(expected.getNumericCellValue(), row.getCell(0).getNumericCellValue(), 0d);
+            assertEquals(expected.getCellStyle().getDataFormatString(), row.getCell(0).getCellStyle().getDataFormatString());
+            assertEquals("0.0%", row.getCell(1).getCellStyle().getDataFormatString());
+            assertEquals("sb", row.getCell(2).getStringCellValue());
+        }
+    }
+
+    private static void assertError(FormulaError error, Cell cell) {
+        assertEquals(CellType.ERROR, cell.getCellType());
+        assertEquals(error.getCode(), cell.getErrorCellValue());
+    }
+
+    @Test
+    public void sharesLowCardinalityColumns() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(out)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.nextRow();
+                writer.write(0, "status" + i % 3);
+                writer.write(1, "id" + i);
+            }
+        }
+        String sheet = entry(out.toByteArray(), "xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<c r=\"A1000\" s=\"1\" t=\"s\">"));
+        assertTrue(sheet.contains("<c r=\"B1000\" s=\"1\" t=\"inlineStr\">"));
+        try (XSSFWorkbook workbook = open(out.toByteArray())) {
+            assertEquals("status0", workbook.getSheetAt(0).getRow(999).getCell(0).getStringCellValue());
+            assertEquals("id999", workbook.getSheetAt(0).getRow(999).getCell(1).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void flushPushesCompressedRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XlsxStreamWriter writer = new XlsxStreamWriter(out);
+        writer.setDefaultStorage(StringStorage.INLINE);
+        writer.nextRow();
+        writer.write(0, "first-page");
+        writer.flush();
+        // 未结束的条目中已能解压出刚写的行
+        assertTrue(partialEntry(out.toByteArray()).contains("first-page"));
+        writer.nextRow();
+        writer.write(0, "second-page");
+        writer.flush();
+        assertTrue(partialEntry(out.toByteArray()).contains("second-page"));
+        writer.close();
+        try (XSSFWorkbook workbook = open(out.toByteArray())) {
+            assertEquals("second-page", workbook.getSheetAt(0).getRow(1).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void abortLeavesInvalidZip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XlsxStreamWriter writer = new XlsxStreamWriter(out);
+        writer.nextRow();
+        writer.write(0, "partial");
+        writer.flush();
+        writer.abort();
+        writer.close();
+        assertFalse(entries(out.toByteArray()).contains("xl/styles.xml"));
+        try {
+            open(out.toByteArray()).close();
+            fail("不完整的文件不应能打开");
+        } catch (Exception expected) {
+            // 截断的zip
+        }
+    }
+
+    @Test
+    public void exportPagedStreamsPages() throws IOException {
+        CapturingResponse capture = new CapturingResponse();
+        PoiExcelUtil.exportPaged("明细", capture.response, Line.class, page -> {
+            if (page > 3) {
+                return Collections.emptyList();
+            }
+            List<Line> lines = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                lines.add(new Line((page - 1) * 100 + i));
+            }
+            return lines;
+        });
+        assertEquals(PoiExcelUtil.XLSX_CONTENT_TYPE, capture.headers.get("Content-Type"));
+        // 标题和每一页各刷新一次，每次都有新的数据输出
+        assertEquals(4, capture.flushes.size());
+        for (int i = 1; i < capture.flushes.size(); i++) {
+            assertTrue(capture.flushes.get(i) > capture.flushes.get(i - 1));
+        }
+        try (XSSFWorkbook workbook = open(capture.body.toByteArray())) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("编号", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(300, sheet.getLastRowNum());
+            assertEquals(299d, sheet.getRow(300).getCell(0).getNumericCellValue(), 0d);
+            assertEquals("停用", sheet.getRow(300).getCell(1).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void exportPagedPropagatesFailure() throws IOException {
+        CapturingResponse capture = new CapturingResponse();
+        try {
+            PoiExcelUtil.exportPaged("明细", capture.response, Line.class, page -> {
+                if (page == 2) {
+                    throw new IllegalStateException("查询失败");
+                }
+                return Arrays.asList(new Line(1), new Line(2));
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("查询失败", e.getMessage());
+        }
+        assertTrue(capture.body.size() > 0);
+        assertFalse(entries(capture.body.toByteArray()).contains("xl/sharedStrings.xml"));
+    }
+
+    private static String entry(byte[] zip, String name) throws IOException {
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry e; (e = in.getNextEntry()) != null; ) {
+                if (e.getName().equals(name)) {
+                    return new String(readAll(in), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new AssertionError("缺少条目：" + name);
+    }
+
+    private static List<String> entries(byte[] zip) {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry e; (e = in.getNextEntry()) != null; ) {
+                names.add(e.getName());
+                readAll(in);
+            }
+        } catch (IOException ignored) {
+            // 读到截断处为止
+        }
+        return names;
+    }
+
+    /**
+     * 读取尚未结束的sheet条目，到截断处为止
+     */
+    private static String partialEntry(byte[] zip) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry e; (e = in.getNextEntry()) != null; ) {
+                if (e.getName().equals("xl/worksheets/sheet1.xml")) {
+                    byte[] buffer = new byte[8192];
+                    try {
+                        for (int n; (n = in.read(buffer)) > 0; ) {
+                            data.write(buffer, 0, n);
+                        }
+                    } catch (IOException truncated) {
+                        // 条目未结束
+                    }
+                    break;
+                }
+            }
+        }
+        return new String(data.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n; (n = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * RSerializer 的输出与按getter反射序列化逐字节比较
+ */
+public class RSerializerTest {
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class BeanMixin {
+    }
+
+    private static List<Object> values() {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", 1);
+        user.put("name", "用户\"1\"\n");
+        List<Object> values = new ArrayList<>();
+        values.add(R.success());
+        values.add(R.success(null));
+        values.add(R.successDef());
+        values.add(R.timeout());
+        values.add(R.fail(R.DEF_ERROR_MESSAGE));
+        values.add(R.fail(R.OPERATION_EX_CODE, R.DEF_ERROR_MESSAGE));
+        values.add(R.validFail(R.DEF_ERROR_MESSAGE));
+        values.add(R.fail("失败：\"引号\"\t</script>"));
+        values.add(R.success(user));
+        values.add(R.success(Arrays.asList(user, user)));
+        values.add(R.success(user).put("total", 100).put("tips", "数据已更新"));
+        values.add(R.success(true).setPath("/api/a"));
+        values.add(R.success(true).setPath(""));
+        values.add(R.success(true).setMsg(""));
+        values.add(R.success(true).setMsg(null));
+        values.add(R.success(true).putAll(new LinkedHashMap<>()));
+        values.add(R.success(Collections.emptyList()));
+        values.add(R.success(""));
+        values.add(R.success(new LinkedHashMap<>()));
+        // 作为数组元素和Map的值时模板的分隔符
+        values.add(Arrays.asList(R.success(), R.timeout(), R.success(1)));
+        Map<String, Object> wrapper = new LinkedHashMap<>();
+        wrapper.put("a", R.success());
+        wrapper.put("b", R.timeout());
+        values.add(wrapper);
+        return values;
+    }
+
+    private static void assertSameBytes(Consumer<ObjectMapper> config) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectMapper bean = new ObjectMapper().addMixIn(R.class, BeanMixin.class);
+        config.accept(mapper);
+        config.accept(bean);
+        for (Object value : values()) {
+            String expected = bean.writeValueAsString(value);
+            assertEquals(expected, mapper.writeValueAsString(value));
+            assertTrue(Arrays.equals(bean.writeValueAsBytes(value), mapper.writeValueAsBytes(value)));
+        }
+    }
+
+    @Test
+    public void matchesBeanSerialization() throws Exception {
+        assertSameBytes(mapper -> {
+        });
+    }
+
+    @Test
+    public void matchesNonNullInclusion() throws Exception {
+        assertSameBytes(mapper -> mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL));
+    }
+
+    @Test
+    public void matchesNonEmptyInclusion() throws Exception {
+        assertSameBytes(mapper -> mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY));
+    }
+
+    @Test
+    public void matchesIndentedOutput() throws Exception {
+        assertSameBytes(mapper -> mapper.enable(SerializationFeature.INDENT_OUTPUT));
+    }
+
+    @Test
+    public void matchesEscapedNonAscii() throws Exception {
+        assertSameBytes(mapper -> mapper.configure(JsonGenerator.Feature.ESCAPE_NON_ASCII, true));
+    }
+
+    @Test
+    public void writesTimestampOfEachInstance() throws Exception {
+        R<Boolean> r = R.success();
+        r.setTimestamp(123L);
+        assertEquals("{\"code\":200,\"data\":true,\"msg\":\"ok\",\"path\":null,\"extra\":null,"
+                + "\"timestamp\":123,\"isSuccess\":true,\"isError\":false}", new ObjectMapper().writeValueAsString(r));
+    }
+}
@@ -0,0 +1,145 @@
+package vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * RStream 的输出与同一 mapper 序列化 R 的结果比较（timestamp 除外）
+ */
+public class RStreamTest {
+
+    private static List<Object> rows() {
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i);
+            row.put("name", "用户" + i);
+            row.put("created", new Date(86400000L * i));
+            row.put("remark", null);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void assertSameAsR(Consumer<ObjectMapper> config) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        config.accept(mapper);
+        List<Object> rows = rows();
+        assertSame(mapper, R.success(rows), RStream.of(mapper, rows));
+        assertSame(mapper, R.success(Collections.emptyList()), RStream.of(mapper, Collections.emptyList()));
+        assertSame(mapper, R.success(rows, ""), RStream.of(mapper, rows).msg(""));
+        assertSame(mapper, R.success(rows, null), RStream.of(mapper, rows).msg(null));
+        assertSame(mapper, R.success(rows).put("total", 5).put("tips", "完成"),
+                RStream.of(mapper, rows).put("total", 5).put("tips", "完成"));
+    }
+
+    private static void assertSame(ObjectMapper mapper, R<?> expected, RStream<?> stream) throws IOException {
+        assertEquals(withoutTimestamp(mapper.writeValueAsString(expected)), withoutTimestamp(write(stream)));
+    }
+
+    private static String write(RStream<?> stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        stream.writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String withoutTimestamp(String json) {
+        return json.replaceAll("\"timestamp\" ?: ?\\d+", "\"timestamp\":0");
+    }
+
+    @Test
+    public void matchesRWithDefaultMapper() throws IOException {
+        assertSameAsR(mapper -> {
+        });
+    }
+
+    @Test
+    public void appliesInclusionRules() throws IOException {
+        assertSameAsR(mapper -> mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL));
+        assertSameAsR(mapper -> mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY));
+    }
+
+    @Test
+    public void usesMapperFeatures() throws IOException {
+        assertSameAsR(mapper -> mapper
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .configure(JsonGenerator.Feature.ESCAPE_NON_ASCII, true));
+        String json = write(RStream.of(new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS), rows()));
+        assertTrue(json, json.contains("\"created\":\"1970-01-02T00:00:00.000+0000\""));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void requiresMapper() {
+        RStream.of(null, Collections.emptyList());
+    }
+
+    @Test
+    public void flushesEveryFlushSizeAndClosesStream() throws IOException {
+        int[] flushes = new int[1];
+        boolean[] closed = new boolean[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+        RStream.of(new ObjectMapper(), IntStream.range(0, 10).boxed().onClose(() -> closed[0] = true))
+                .flushSize(3)
+                .writeTo(out);
+        assertTrue(closed[0]);
+        // 每3条一次，写完关闭生成器时再刷新一次
+        assertEquals(4, flushes[0]);
+        assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8).startsWith("{\"code\":200,\"data\":[0,1,2,3,4,5,6,7,8,9]"));
+    }
+
+    @Test
+    public void leavesJsonIncompleteOnFailure() {
+        Iterator<Integer> failing = new Iterator<Integer>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (i == 2) {
+                    throw new IllegalStateException("游标中断");
+                }
+                return i++;
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            RStream.of(new ObjectMapper(), failing).writeTo(out);
+            fail();
+        } catch (IllegalStateException | IOException expected) {
+            String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            assertFalse(json, json.endsWith("}"));
+            assertFalse(json, json.endsWith("]"));
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.pvxy.servicebaseconsume.api;
 
+import com.pvxy.servicebaseconsume.cache.ConfigVersionProbe;
+import com.pvxy.servicebaseconsume.cache.NearCache;
+import com.pvxy.servicebaseconsume.cache.NearCacheFeignConfig;
+import com.pvxy.servicebaseconsume.config.PooledFeignConfig;
+import com.pvxy.servicebaseconsume.config.SmileFeignConfig;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import vo.R;
 
 @Component
-@FeignClient(value = "service-base-provider", path = "/config")
+@FeignClient(value = "service-base-provider", path = "/config", configuration = {SmileFeignConfig.class, PooledFeignConfig.class, NearCacheFeignConfig.class})
 public interface ConfigApi {
 
+    @NearCache(ttl = 60000)
     @GetMapping("/echo/{string}")
-    String echo(@PathVariable("string") String string);
+    R<String> echo(@PathVariable("string") String string);
+
+    @ConfigVersionProbe
+    @GetMapping("/version")
+    R<String> version();
 
 }
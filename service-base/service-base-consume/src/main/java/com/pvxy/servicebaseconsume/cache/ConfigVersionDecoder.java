@@ -0,0 +1,38 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import feign.FeignException;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 解码前读取响应头中的服务端配置版本，版本变化时清空该客户端的本地缓存
+ * 缓存加载和版本探测的响应都经过这里；在加载线程中发现新版本时，该次加载的结果仍会写入缓存
+ */
+class ConfigVersionDecoder implements Decoder {
+
+    private final String client;
+
+    private final Decoder delegate;
+
+    ConfigVersionDecoder(String client, Decoder delegate) {
+        this.client = client;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException, DecodeException, FeignException {
+        for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+            if (NearCacheRegistry.VERSION_HEADER.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                NearCacheRegistry.onVersion(client, header.getValue().iterator().next());
+                break;
+            }
+        }
+        return delegate.decode(response, type);
+    }
+}
@@ -0,0 +1,17 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在带 {@link NearCache} 的Feign客户端的无参方法上，按 pvxy.near-cache.probe-interval 定时调用，
+ * 从响应头 X-Config-Version 读取服务端配置版本；缓存全部命中时也能及时发现配置刷新
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConfigVersionProbe {
+}
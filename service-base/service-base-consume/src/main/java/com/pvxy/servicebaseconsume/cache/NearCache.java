@@ -0,0 +1,32 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在Feign客户端接口的方法上，按参数在本地缓存返回值
+ * 同一参数同时只有一个请求发往服务端，其余调用等待该结果；
+ * 客户端任一响应的 X-Config-Version 与上次不同，或本地配置刷新时清空缓存。
+ * 命中缓存不会发出请求，服务端配置刷新要靠 {@link ConfigVersionProbe} 的定时探测或未命中的请求发现：
+ * 有探测方法时旧值最多保留约 probe-interval，否则最多保留 ttl
+ * 返回失败的 R（getIsSuccess() 为false）时不缓存，下次调用重新请求；
+ * 参数需正确实现 equals/hashCode；缓存的返回值被所有调用方共享，不要修改
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NearCache {
+
+    /**
+     * 过期时间，毫秒
+     */
+    long ttl() default 30000;
+
+    /**
+     * 最多缓存的参数组合个数，超过后淘汰最久未使用的
+     */
+    int maxSize() default 1000;
+}
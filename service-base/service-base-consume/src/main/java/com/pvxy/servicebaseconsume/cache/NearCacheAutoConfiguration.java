@@ -0,0 +1,32 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 本地缓存的自动配置，通过 spring.factories 加载
+ * 本地配置刷新（Nacos推送、/actuator/refresh）时清空全部缓存；
+ * 每隔 pvxy.near-cache.probe-interval 毫秒（默认5000）调用各客户端的 {@link ConfigVersionProbe}，
+ * 服务端配置版本变化时清空该客户端的缓存
+ */
+@Configuration
+public class NearCacheAutoConfiguration {
+
+    @Bean
+    public static NearCacheBeanPostProcessor nearCacheBeanPostProcessor() {
+        return new NearCacheBeanPostProcessor();
+    }
+
+    @Bean
+    public NearCacheProbeScheduler nearCacheProbeScheduler(Environment environment) {
+        return new NearCacheProbeScheduler(environment.getProperty("pvxy.near-cache.probe-interval", Long.class, 5000L));
+    }
+
+    @Bean
+    public ApplicationListener<EnvironmentChangeEvent> nearCacheRefreshListener() {
+        return event -> NearCacheRegistry.invalidateAll();
+    }
+}
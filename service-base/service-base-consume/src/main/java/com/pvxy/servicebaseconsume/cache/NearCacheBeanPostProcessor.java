@@ -0,0 +1,117 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 为带 {@link NearCache} 方法的Feign客户端包一层代理，其余方法直接转发；
+ * 同时登记 {@link ConfigVersionProbe} 方法作为该客户端的版本探测
+ */
+public class NearCacheBeanPostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!Proxy.isProxyClass(bean.getClass())) {
+            return bean;
+        }
+        for (Class<?> type : bean.getClass().getInterfaces()) {
+            FeignClient feignClient = AnnotationUtils.findAnnotation(type, FeignClient.class);
+            if (feignClient != null) {
+                return wrap(bean, type, clientName(feignClient));
+            }
+        }
+        return bean;
+    }
+
+    private Object wrap(Object bean, Class<?> type, String client) {
+        Map<Method, NearCacheRegion> regions = new HashMap<>();
+        Method probe = null;
+        for (Method method : type.getMethods()) {
+            NearCache nearCache = AnnotationUtils.findAnnotation(method, NearCache.class);
+            if (nearCache != null) {
+                NearCacheRegion region = new NearCacheRegion(nearCache.ttl(), nearCache.maxSize());
+                regions.put(method, region);
+                NearCacheRegistry.register(client, methodKey(type, method), region);
+            }
+            if (AnnotationUtils.findAnnotation(method, ConfigVersionProbe.class) != null) {
+                if (method.getParameterCount() != 0 || nearCache != null) {
+                    throw new IllegalStateException("@ConfigVersionProbe 方法不能有参数或缓存：" + methodKey(type, method));
+                }
+                probe = method;
+            }
+        }
+        if (regions.isEmpty()) {
+            return bean;
+        }
+        if (probe != null) {
+            Method method = probe;
+            NearCacheRegistry.registerProbe(client, () -> probe(bean, method));
+        }
+        return Proxy.newProxyInstance(type.getClassLoader(), bean.getClass().getInterfaces(), (proxy, method, args) -> {
+            NearCacheRegion region = regions.get(method);
+            if (region == null) {
+                return invoke(bean, method, args);
+            }
+            Object key = args == null ? Collections.emptyList() : Arrays.asList(args);
+            return region.get(key, () -> invoke(bean, method, args));
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static void probe(Object target, Method method) {
+        try {
+            invoke(target, method, null);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String methodKey(Class<?> type, Method method) {
+        StringJoiner key = new StringJoiner(",", type.getSimpleName() + "#" + method.getName() + "(", ")");
+        for (Class<?> parameter : method.getParameterTypes()) {
+            key.add(parameter.getSimpleName());
+        }
+        return key.toString();
+    }
+
+    /**
+     * 与Feign子容器的名称一致：contextId，其次 name/value
+     */
+    private String clientName(FeignClient feignClient) {
+        String name = feignClient.contextId();
+        if (!StringUtils.hasText(name)) {
+            name = StringUtils.hasText(feignClient.name()) ? feignClient.name() : feignClient.value();
+        }
+        return environment.resolvePlaceholders(name);
+    }
+}
@@ -0,0 +1,26 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import feign.codec.Decoder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 带 {@link NearCache} 的Feign客户端通过 @FeignClient(configuration = NearCacheFeignConfig.class) 引用，
+ * 在该客户端的解码器外层读取服务端配置版本；可与提供解码器的其他配置同时使用
+ * 不加 @Configuration，避免被扫描后作用到所有Feign客户端
+ */
+public class NearCacheFeignConfig {
+
+    @Bean
+    public static BeanPostProcessor configVersionDecoderPostProcessor(Environment environment) {
+        String client = environment.getProperty("feign.client.name");
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                return bean instanceof Decoder ? new ConfigVersionDecoder(client, (Decoder) bean) : bean;
+            }
+        };
+    }
+}
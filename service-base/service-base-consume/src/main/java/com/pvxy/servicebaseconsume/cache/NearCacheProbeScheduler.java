@@ -0,0 +1,35 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时调用各客户端的 {@link ConfigVersionProbe}，间隔小于等于0时不探测
+ */
+public class NearCacheProbeScheduler implements DisposableBean {
+
+    private final ScheduledExecutorService executor;
+
+    public NearCacheProbeScheduler(long interval) {
+        if (interval <= 0) {
+            this.executor = null;
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "near-cache-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(NearCacheRegistry::probeAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
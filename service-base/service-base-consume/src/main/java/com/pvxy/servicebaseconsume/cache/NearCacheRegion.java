@@ -0,0 +1,191 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import vo.R;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个方法的本地缓存：按访问顺序的LRU + TTL，未命中时同一个key只加载一次
+ * 清空前开始的加载不写入缓存；但加载自身的响应带来新版本而触发的清空除外，该结果已是新配置，照常写入；
+ * 失败的 {@link R} 只返回给本次等待的调用方，不写入缓存
+ */
+final class NearCacheRegion {
+
+    @FunctionalInterface
+    interface Loader {
+
+        Object load() throws Throwable;
+    }
+
+    /**
+     * 当前线程正在执行的加载，用于识别由该加载的响应触发的清空
+     */
+    private static final ThreadLocal<Load> CURRENT = new ThreadLocal<>();
+
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Object, Entry> entries;
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * 每次清空加一，清空前开始的加载不再写入缓存
+     */
+    private long generation;
+
+    NearCacheRegion(long ttl, int maxSize) {
+        if (ttl <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("ttl和maxSize必须大于0");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    Object get(Object key, Loader loader) throws Throwable {
+        Entry entry = lookup(key);
+        if (entry != null) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            Load load;
+            synchronized (this) {
+                // 上一次加载可能刚写入
+                entry = lookup(key);
+                load = new Load(this, generation);
+            }
+            Object value;
+            if (entry != null) {
+                value = entry.value;
+            } else {
+                loads.increment();
+                Load outer = CURRENT.get();
+                CURRENT.set(load);
+                try {
+                    value = loader.load();
+                } finally {
+                    CURRENT.set(outer);
+                }
+                synchronized (this) {
+                    if (load.generation == generation && cacheable(value)) {
+                        entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+                    }
+                }
+            }
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 服务端返回的错误（如限流、降级）是暂时的，缓存下来会在ttl内一直返回失败
+     */
+    private static boolean cacheable(Object value) {
+        return !(value instanceof R) || ((R<?>) value).getIsSuccess();
+    }
+
+    synchronized void invalidate() {
+        Load load = CURRENT.get();
+        // 当前线程加载中发现新版本：清空旧值，保留这次加载的结果
+        boolean self = load != null && load.region == this && load.generation == generation;
+        generation++;
+        entries.clear();
+        if (self) {
+            load.generation = generation;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long loads() {
+        return loads.sum();
+    }
+
+    private synchronized Entry lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private static final class Load {
+
+        private final NearCacheRegion region;
+
+        /**
+         * 开始时的代数，与当前代数相同才写入缓存
+         */
+        private long generation;
+
+        Load(NearCacheRegion region, long generation) {
+            this.region = region;
+            this.generation = generation;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+
+        private final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按Feign客户端名登记的本地缓存、版本探测方法，以及各客户端最近一次看到的服务端配置版本
+ */
+public final class NearCacheRegistry {
+
+    /**
+     * 服务端配置版本的响应头，与 service-base-provider 的 ConfigVersionFilter 一致
+     */
+    public static final String VERSION_HEADER = "X-Config-Version";
+
+    private static final Map<String, ClientCaches> CLIENTS = new ConcurrentHashMap<>();
+
+    private NearCacheRegistry() {
+    }
+
+    static void register(String client, String method, NearCacheRegion region) {
+        CLIENTS.computeIfAbsent(client, name -> new ClientCaches()).regions.put(method, region);
+    }
+
+    /**
+     * 登记客户端的版本探测，调用时经过 {@link ConfigVersionDecoder} 读取版本
+     */
+    static void registerProbe(String client, Runnable probe) {
+        CLIENTS.computeIfAbsent(client, name -> new ClientCaches()).probe = probe;
+    }
+
+    /**
+     * 依次调用各客户端的版本探测；服务端不可用时跳过，下次再探测
+     */
+    static void probeAll() {
+        CLIENTS.values().forEach(caches -> {
+            Runnable probe = caches.probe;
+            if (probe == null) {
+                return;
+            }
+            try {
+                probe.run();
+            } catch (RuntimeException e) {
+                caches.probeFailures.increment();
+            }
+        });
+    }
+
+    /**
+     * 收到服务端配置版本，与上次不同时清空该客户端的缓存
+     */
+    static void onVersion(String client, String version) {
+        ClientCaches caches = CLIENTS.get(client);
+        if (caches == null || version == null) {
+            return;
+        }
+        String previous = caches.version.getAndSet(version);
+        if (previous != null && !previous.equals(version)) {
+            caches.invalidate();
+        }
+    }
+
+    public static void invalidate(String client) {
+        ClientCaches caches = CLIENTS.get(client);
+        if (caches != null) {
+            caches.invalidate();
+        }
+    }
+
+    public static void invalidateAll() {
+        CLIENTS.values().forEach(ClientCaches::invalidate);
+    }
+
+    /**
+     * 各客户端的配置版本和每个方法的缓存条数、命中、未命中、加载次数
+     */
+    public static Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        CLIENTS.forEach((client, caches) -> {
+            Map<String, Object> methods = new TreeMap<>();
+            caches.regions.forEach((method, region) -> {
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("size", region.size());
+                stats.put("hits", region.hits());
+                stats.put("misses", region.misses());
+                stats.put("loads", region.loads());
+                methods.put(method, stats);
+            });
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("version", caches.version.get());
+            map.put("probeFailures", caches.probeFailures.sum());
+            map.put("methods", methods);
+            result.put(client, map);
+        });
+        return result;
+    }
+
+    private static final class ClientCaches {
+
+        private final Map<String, NearCacheRegion> regions = new ConcurrentHashMap<>();
+
+        private final AtomicReference<String> version = new AtomicReference<>();
+
+        private final LongAdder probeFailures = new LongAdder();
+
+        private volatile Runnable probe;
+
+        void invalidate() {
+            regions.values().forEach(NearCacheRegion::invalidate);
+        }
+    }
+}
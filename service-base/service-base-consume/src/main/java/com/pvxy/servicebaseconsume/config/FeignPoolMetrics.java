@@ -0,0 +1,108 @@
+package com.pvxy.servicebaseconsume.config;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feign连接池指标，按客户端名登记
+ * 记录借出连接次数和新建连接次数，复用率 = 1 - 新建 / 借出；
+ * routes 按目标地址列出各路由的连接数，便于定位被单个下游占满的连接池
+ */
+public final class FeignPoolMetrics {
+
+    private static final Map<String, MeteredConnectionManager> POOLS = new ConcurrentHashMap<>();
+
+    private FeignPoolMetrics() {
+    }
+
+    /**
+     * 创建并登记客户端的连接池，连接池关闭时自动注销
+     */
+    static PoolingHttpClientConnectionManager newConnectionManager(String name, FeignPoolProperties properties) {
+        MeteredConnectionManager manager = new MeteredConnectionManager(name, properties.getTimeToLive());
+        manager.setMaxTotal(properties.getMaxConnections());
+        manager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        manager.setValidateAfterInactivity(properties.getValidateAfterInactivity());
+        POOLS.put(name, manager);
+        return manager;
+    }
+
+    /**
+     * 全部客户端连接池的当前状态，按客户端名排序
+     */
+    public static Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        POOLS.forEach((name, manager) -> result.put(name, manager.snapshot()));
+        return result;
+    }
+
+    private static final class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final String name;
+
+        private final LongAdder leases = new LongAdder();
+
+        private final LongAdder connects = new LongAdder();
+
+        MeteredConnectionManager(String name, long timeToLive) {
+            super(timeToLive, TimeUnit.MILLISECONDS);
+            this.name = name;
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            leases.increment();
+            return super.requestConnection(route, state);
+        }
+
+        @Override
+        public void connect(HttpClientConnection conn, HttpRoute route, int connectTimeout, HttpContext context)
+                throws IOException {
+            connects.increment();
+            super.connect(conn, route, connectTimeout, context);
+        }
+
+        @Override
+        public void shutdown() {
+            super.shutdown();
+            POOLS.remove(name, this);
+        }
+
+        Map<String, Object> snapshot() {
+            long leased = leases.sum();
+            long connected = connects.sum();
+            Map<String, Object> map = stats(getTotalStats());
+            Map<String, Map<String, Object>> routes = new TreeMap<>();
+            for (HttpRoute route : getRoutes()) {
+                routes.put(route.getTargetHost().toURI(), stats(getStats(route)));
+            }
+            map.put("routes", routes);
+            map.put("requests", leased);
+            map.put("connects", connected);
+            map.put("reuseRatio", leased == 0 ? 0d : 1 - (double) connected / leased);
+            return map;
+        }
+
+        private static Map<String, Object> stats(PoolStats stats) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("max", stats.getMax());
+            map.put("leased", stats.getLeased());
+            map.put("available", stats.getAvailable());
+            map.put("pending", stats.getPending());
+            map.put("utilization", stats.getMax() == 0 ? 0d : (double) stats.getLeased() / stats.getMax());
+            return map;
+        }
+    }
+}
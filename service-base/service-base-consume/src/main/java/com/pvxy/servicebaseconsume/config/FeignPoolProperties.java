@@ -0,0 +1,83 @@
+package com.pvxy.servicebaseconsume.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.core.env.Environment;
+
+/**
+ * Feign连接池配置，时间单位均为毫秒
+ * 连接数和连接存活时间默认取标准的 feign.httpclient.*，可用 pvxy.feign.clients.&lt;客户端名&gt; 按客户端覆盖；
+ * 连接、读取超时不在这里配置，按标准的 feign.client.config.&lt;客户端名&gt; 设置
+ * <pre>
+ * feign:
+ *   httpclient:
+ *     enabled: false
+ *     max-connections: 200
+ *   client:
+ *     config:
+ *       service-base-provider:
+ *         connectTimeout: 2000
+ *         readTimeout: 5000
+ * pvxy:
+ *   feign:
+ *     clients:
+ *       service-base-provider:
+ *         max-connections-per-route: 100
+ *         acquire-timeout: 500
+ * </pre>
+ */
+@Data
+public class FeignPoolProperties {
+
+    /**
+     * 连接池总连接数
+     */
+    private int maxConnections = FeignHttpClientProperties.DEFAULT_MAX_CONNECTIONS;
+
+    /**
+     * 每个目标地址（实例）的连接数
+     */
+    private int maxConnectionsPerRoute = FeignHttpClientProperties.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+    /**
+     * 连接池满时等待空闲连接的时间
+     */
+    private int acquireTimeout = 1000;
+
+    /**
+     * 服务端没有返回 Keep-Alive 时连接的保持时间，空闲超过该时间的连接会被回收
+     */
+    private long keepAlive = 30000;
+
+    /**
+     * 连接最长存活时间，小于等于0表示不限制
+     */
+    private long timeToLive = FeignHttpClientProperties.DEFAULT_TIME_TO_LIVE_UNIT.toMillis(FeignHttpClientProperties.DEFAULT_TIME_TO_LIVE);
+
+    /**
+     * 空闲超过该时间的连接在复用前先检查是否可用
+     */
+    private int validateAfterInactivity = 2000;
+
+    /**
+     * 请求 gzip 压缩的响应并自动解压
+     */
+    private boolean compression = true;
+
+    /**
+     * 先取 feign.httpclient.* 的连接数和存活时间，再用 pvxy.feign.clients.&lt;name&gt; 覆盖
+     */
+    static FeignPoolProperties bind(Environment environment, String name) {
+        Binder binder = Binder.get(environment);
+        FeignHttpClientProperties httpClient = binder.bind("feign.httpclient", FeignHttpClientProperties.class)
+                .orElseGet(FeignHttpClientProperties::new);
+        FeignPoolProperties properties = new FeignPoolProperties();
+        properties.setMaxConnections(httpClient.getMaxConnections());
+        properties.setMaxConnectionsPerRoute(httpClient.getMaxConnectionsPerRoute());
+        properties.setTimeToLive(httpClient.getTimeToLiveUnit().toMillis(httpClient.getTimeToLive()));
+        binder.bind("pvxy.feign.clients." + name, Bindable.ofInstance(properties));
+        return properties;
+    }
+}
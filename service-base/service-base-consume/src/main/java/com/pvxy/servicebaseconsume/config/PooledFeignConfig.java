@@ -0,0 +1,70 @@
+package com.pvxy.servicebaseconsume.config;
+
+import feign.Client;
+import feign.httpclient.ApacheHttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.cloud.openfeign.ribbon.CachingSpringLoadBalancerFactory;
+import org.springframework.cloud.openfeign.ribbon.LoadBalancerFeignClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign客户端独立的HTTP连接池，通过 @FeignClient(configuration = PooledFeignConfig.class) 引用
+ * 每个客户端一个 Apache HttpClient：连接池、keep-alive、gzip响应，
+ * 配置见 {@link FeignPoolProperties}，连接池状态见 {@link FeignPoolMetrics}；
+ * 连接、读取超时由标准的 feign.client.config 生成的 Request.Options 按请求设置
+ * 不加 @Configuration，避免被扫描后作用到所有Feign客户端
+ * <p>
+ * 引入 feign-httpclient 后 Spring Cloud 默认为所有Feign客户端创建一个共享的Apache连接池，
+ * 使用本模块的应用需设置 feign.httpclient.enabled=false，其余客户端仍使用默认的 HttpURLConnection
+ */
+public class PooledFeignConfig {
+
+    @Bean
+    public FeignPoolProperties feignPoolProperties(Environment environment, @Value("${feign.client.name}") String name) {
+        return FeignPoolProperties.bind(environment, name);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(FeignPoolProperties properties, @Value("${feign.client.name}") String name) {
+        PoolingHttpClientConnectionManager manager = FeignPoolMetrics.newConnectionManager(name, properties);
+        // 连接、读取超时由 ApacheHttpClient 按 Request.Options 覆盖
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(properties.getAcquireTimeout())
+                .build();
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? keepAlive : properties.getKeepAlive();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getKeepAlive(), TimeUnit.MILLISECONDS)
+                .disableCookieManagement();
+        if (!properties.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    /**
+     * 经Ribbon选择实例后由连接池发送
+     */
+    @Bean
+    public Client feignClient(@Qualifier("feignHttpClient") CloseableHttpClient httpClient,
+                              CachingSpringLoadBalancerFactory loadBalancerFactory,
+                              SpringClientFactory clientFactory) {
+        return new LoadBalancerFeignClient(new ApacheHttpClient(httpClient), loadBalancerFactory, clientFactory);
+    }
+}
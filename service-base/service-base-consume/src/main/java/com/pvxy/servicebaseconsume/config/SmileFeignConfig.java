@@ -0,0 +1,80 @@
+package com.pvxy.servicebaseconsume.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 内部服务Feign客户端的Smile解码，通过 @FeignClient(configuration = SmileFeignConfig.class) 引用
+ * 不加 @Configuration，避免被扫描后作用到所有Feign客户端
+ * 只有响应使用Smile：请求头 Accept 优先 application/x-jackson-smile，解码按响应的 Content-Type
+ * 选择 Smile 或 JSON，服务端未启用Smile时回退为JSON；
+ * 请求体始终按JSON编码，服务端不需要能读取Smile
+ * 返回String的接口按文本读取，不会使用Smile，需要二进制编码的接口应返回对象（如 R&lt;String&gt;）
+ */
+public class SmileFeignConfig {
+
+    static final String ACCEPT = "application/x-jackson-smile, application/json;q=0.9, */*;q=0.8";
+
+    @Bean
+    public Decoder feignDecoder(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        Jackson2ObjectMapperBuilder json = builder.getIfAvailable(Jackson2ObjectMapperBuilder::json);
+        return new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters(
+                new StringHttpMessageConverter(StandardCharsets.UTF_8),
+                new MappingJackson2SmileHttpMessageConverter(smileMapper(json)),
+                new MappingJackson2HttpMessageConverter(json.build())))));
+    }
+
+    @Bean
+    public Encoder feignEncoder(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        Jackson2ObjectMapperBuilder json = builder.getIfAvailable(Jackson2ObjectMapperBuilder::json);
+        return new SpringEncoder(messageConverters(
+                new StringHttpMessageConverter(StandardCharsets.UTF_8),
+                new MappingJackson2HttpMessageConverter(json.build())));
+    }
+
+    /**
+     * 接口声明了 produces 时保留原有的 Accept
+     */
+    @Bean
+    public RequestInterceptor smileAcceptInterceptor() {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, ACCEPT);
+            }
+        };
+    }
+
+    /**
+     * 与JSON相同配置的Smile实例，不修改 builder 本身
+     */
+    static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        builder.configure(mapper);
+        return mapper;
+    }
+
+    private static ObjectFactory<HttpMessageConverters> messageConverters(HttpMessageConverter<?>... converters) {
+        HttpMessageConverters messageConverters = new HttpMessageConverters(false, Arrays.asList(converters));
+        return () -> messageConverters;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+import org.junit.Test;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 经过代理、{@link ConfigVersionDecoder} 和定时探测的缓存失效
+ */
+public class NearCacheBeanPostProcessorTest {
+
+    private static final String CLIENT = "near-cache-test";
+
+    @FeignClient(CLIENT)
+    interface TestApi {
+
+        @NearCache(ttl = 60000)
+        String echo(String value);
+
+        @ConfigVersionProbe
+        String version();
+    }
+
+    @FeignClient("near-cache-invalid")
+    interface InvalidApi {
+
+        @NearCache
+        String echo(String value);
+
+        @ConfigVersionProbe
+        String version(String value);
+    }
+
+    /**
+     * 模拟Feign代理：每次调用都经过解码器读取服务端当前版本
+     */
+    private static final class Server {
+
+        private final AtomicInteger echoes = new AtomicInteger();
+
+        private final AtomicInteger probes = new AtomicInteger();
+
+        private volatile String version = "v1";
+
+        private final Decoder decoder = new ConfigVersionDecoder(CLIENT, (response, type) -> "decoded");
+
+        private Object respond(String body) throws Exception {
+            Map<String, Collection<String>> headers = new LinkedHashMap<>();
+            headers.put(NearCacheRegistry.VERSION_HEADER, Collections.singletonList(version));
+            Response response = Response.builder().status(200).reason("OK").headers(headers)
+                    .request(Request.create(Request.HttpMethod.GET, "http://test", Collections.emptyMap(), null, StandardCharsets.UTF_8))
+                    .body(body, StandardCharsets.UTF_8).build();
+            decoder.decode(response, String.class);
+            return body;
+        }
+
+        Object proxy(Class<?> type) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().equals("echo")) {
+                    return respond(args[0] + "@" + version + "#" + echoes.incrementAndGet());
+                }
+                probes.incrementAndGet();
+                return respond(version);
+            });
+        }
+    }
+
+    private static TestApi wrap(Server server) {
+        NearCacheBeanPostProcessor processor = new NearCacheBeanPostProcessor();
+        processor.setEnvironment(new StandardEnvironment());
+        Object bean = server.proxy(TestApi.class);
+        Object wrapped = processor.postProcessAfterInitialization(bean, "testApi");
+        assertNotSame(bean, wrapped);
+        return (TestApi) wrapped;
+    }
+
+    @Test
+    public void probeInvalidatesWithoutMisses() {
+        Server server = new Server();
+        TestApi api = wrap(server);
+        String first = api.echo("a");
+        assertEquals(first, api.echo("a"));
+        assertEquals(1, server.echoes.get());
+
+        // 全部命中时不会有请求，由探测发现新版本
+        server.version = "v2";
+        assertEquals(first, api.echo("a"));
+        NearCacheRegistry.probeAll();
+        assertEquals("a@v2#2", api.echo("a"));
+        assertEquals("a@v2#2", api.echo("a"));
+        assertTrue(server.probes.get() >= 1);
+    }
+
+    @Test
+    public void schedulerProbesPeriodically() throws Exception {
+        Server server = new Server();
+        wrap(server);
+        NearCacheProbeScheduler scheduler = new NearCacheProbeScheduler(20);
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.probes.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            scheduler.destroy();
+        }
+        assertTrue(server.probes.get() >= 2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsProbeWithParameters() {
+        NearCacheBeanPostProcessor processor = new NearCacheBeanPostProcessor();
+        processor.setEnvironment(new StandardEnvironment());
+        processor.postProcessAfterInitialization(new Server().proxy(InvalidApi.class), "invalidApi");
+    }
+}
@@ -0,0 +1,122 @@
+package com.pvxy.servicebaseconsume.cache;
+
+import org.junit.Test;
+import vo.R;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class NearCacheRegionTest {
+
+    @Test
+    public void expiresAfterTtl() throws Throwable {
+        NearCacheRegion region = new NearCacheRegion(50, 10);
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals(1, region.get("a", calls::incrementAndGet));
+        assertEquals(1, region.get("a", calls::incrementAndGet));
+        Thread.sleep(80);
+        assertEquals(2, region.get("a", calls::incrementAndGet));
+        assertEquals(1, region.hits());
+        assertEquals(2, region.loads());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Throwable {
+        NearCacheRegion region = new NearCacheRegion(60000, 2);
+        region.get("a", () -> "a1");
+        region.get("b", () -> "b1");
+        region.get("a", () -> "a2");
+        region.get("c", () -> "c1");
+        assertEquals(2, region.size());
+        assertEquals("a1", region.get("a", () -> "a3"));
+        assertEquals("b2", region.get("b", () -> "b2"));
+    }
+
+    @Test
+    public void loadsOnceForConcurrentMisses() throws Exception {
+        NearCacheRegion region = new NearCacheRegion(60000, 10);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return region.get("k", () -> {
+                            calls.incrementAndGet();
+                            release.await();
+                            return "v";
+                        });
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Object> future : futures) {
+                assertEquals("v", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void skipsFailedResults() throws Throwable {
+        NearCacheRegion region = new NearCacheRegion(60000, 10);
+        R<String> failed = R.fail("限流");
+        assertSame(failed, region.get("a", () -> failed));
+        assertEquals(0, region.size());
+        R<String> ok = R.success("v");
+        assertSame(ok, region.get("a", () -> ok));
+        assertSame(ok, region.get("a", () -> R.success("reloaded")));
+        assertEquals(1, region.size());
+    }
+
+    @Test
+    public void dropsLoadsStartedBeforeInvalidation() throws Throwable {
+        NearCacheRegion region = new NearCacheRegion(60000, 10);
+        // 其他线程在加载期间清空，这次结果可能是旧配置，不写入
+        region.get("a", () -> {
+            Thread other = new Thread(region::invalidate);
+            other.start();
+            other.join();
+            return "old";
+        });
+        assertEquals(0, region.size());
+        assertEquals("new", region.get("a", () -> "new"));
+    }
+
+    @Test
+    public void keepsValueThatDetectedNewVersion() throws Throwable {
+        String client = "region-version-test";
+        NearCacheRegion region = new NearCacheRegion(60000, 10);
+        NearCacheRegistry.register(client, "m", region);
+        region.get("a", () -> {
+            NearCacheRegistry.onVersion(client, "v1");
+            return "a1";
+        });
+        region.get("b", () -> "b1");
+        // 加载 c 的响应带来新版本：清空 a、b，保留 c
+        region.get("c", () -> {
+            NearCacheRegistry.onVersion(client, "v2");
+            return "c2";
+        });
+        assertEquals(1, region.size());
+        assertEquals("c2", region.get("c", () -> "reloaded"));
+        assertEquals("a2", region.get("a", () -> "a2"));
+        assertEquals("v2", NearCacheRegistry.snapshot().get(client).get("version"));
+    }
+}
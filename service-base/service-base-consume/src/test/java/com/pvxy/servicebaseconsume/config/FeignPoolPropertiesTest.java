@@ -0,0 +1,57 @@
+package com.pvxy.servicebaseconsume.config;
+
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class FeignPoolPropertiesTest {
+
+    private static StandardEnvironment environment(String... pairs) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            map.put(pairs[i], pairs[i + 1]);
+        }
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", map));
+        return environment;
+    }
+
+    @Test
+    public void defaultsMatchFeignHttpClient() {
+        FeignPoolProperties properties = FeignPoolProperties.bind(environment(), "svc");
+        assertEquals(200, properties.getMaxConnections());
+        assertEquals(50, properties.getMaxConnectionsPerRoute());
+        assertEquals(TimeUnit.SECONDS.toMillis(900), properties.getTimeToLive());
+        assertEquals(1000, properties.getAcquireTimeout());
+    }
+
+    @Test
+    public void clientOverridesStandardProperties() {
+        StandardEnvironment environment = environment(
+                "feign.httpclient.max-connections", "300",
+                "feign.httpclient.max-connections-per-route", "60",
+                "feign.httpclient.time-to-live", "2",
+                "feign.httpclient.time-to-live-unit", "minutes",
+                "pvxy.feign.clients.svc.max-connections-per-route", "10",
+                "pvxy.feign.clients.svc.acquire-timeout", "500",
+                "pvxy.feign.clients.svc.compression", "false");
+        FeignPoolProperties svc = FeignPoolProperties.bind(environment, "svc");
+        assertEquals(300, svc.getMaxConnections());
+        assertEquals(10, svc.getMaxConnectionsPerRoute());
+        assertEquals(120000, svc.getTimeToLive());
+        assertEquals(500, svc.getAcquireTimeout());
+        assertFalse(svc.isCompression());
+
+        // 其他客户端只取标准配置
+        FeignPoolProperties other = FeignPoolProperties.bind(environment, "other");
+        assertEquals(60, other.getMaxConnectionsPerRoute());
+        assertEquals(1000, other.getAcquireTimeout());
+    }
+}
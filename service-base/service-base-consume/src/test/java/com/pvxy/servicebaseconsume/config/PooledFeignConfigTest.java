@@ -0,0 +1,126 @@
+package com.pvxy.servicebaseconsume.config;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.httpclient.ApacheHttpClient;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 连接池对本地HTTP服务的复用、按请求的超时和gzip解压
+ */
+public class PooledFeignConfigTest {
+
+    private static final String NAME = "pooled-feign-test";
+
+    private HttpServer server;
+
+    private CloseableHttpClient httpClient;
+
+    private Client client;
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/echo", exchange -> {
+            byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (encoding != null && encoding.contains("gzip")) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                    gzip.write(body);
+                }
+                body = bytes.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        httpClient = new PooledFeignConfig().feignHttpClient(new FeignPoolProperties(), NAME);
+        client = new ApacheHttpClient(httpClient);
+    }
+
+    @After
+    public void stop() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    private Response get(String path, Request.Options options) throws IOException {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        return client.execute(Request.create(Request.HttpMethod.GET, url, Collections.emptyMap(), null,
+                StandardCharsets.UTF_8), options);
+    }
+
+    @Test
+    public void reusesConnectionsAndDecompresses() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            try (Response response = get("/echo", new Request.Options())) {
+                assertEquals("pong", Util.toString(response.body().asReader()));
+            }
+        }
+        Map<String, Object> stats = FeignPoolMetrics.snapshot().get(NAME);
+        assertEquals(5L, stats.get("requests"));
+        assertEquals(1L, stats.get("connects"));
+        assertEquals(0.8d, (Double) stats.get("reuseRatio"), 1e-9);
+        assertEquals(0, stats.get("leased"));
+        // 按目标地址的路由统计：唯一的连接已归还，处于空闲
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> routes = (Map<String, Map<String, Object>>) stats.get("routes");
+        Map<String, Object> route = routes.get("http://127.0.0.1:" + server.getAddress().getPort());
+        assertEquals(1, routes.size());
+        assertEquals(0, route.get("leased"));
+        assertEquals(1, route.get("available"));
+        assertEquals(0, route.get("pending"));
+        assertEquals(new FeignPoolProperties().getMaxConnectionsPerRoute(), route.get("max"));
+    }
+
+    @Test
+    public void appliesReadTimeoutFromRequestOptions() throws IOException {
+        try {
+            get("/slow", new Request.Options(1000, 100)).close();
+            fail("未按 Request.Options 超时");
+        } catch (SocketTimeoutException expected) {
+            // 读取超时来自 feign.client.config 生成的 Options
+        }
+    }
+
+    @Test
+    public void unregistersOnClose() throws IOException {
+        assertTrue(FeignPoolMetrics.snapshot().containsKey(NAME));
+        httpClient.close();
+        assertFalse(FeignPoolMetrics.snapshot().containsKey(NAME));
+    }
+}
@@ -0,0 +1,106 @@
+package com.pvxy.servicebaseconsume.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.pvxy.servicebaseconsume.api.ConfigApi;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import vo.R;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SmileFeignConfigTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private final SmileFeignConfig config = new SmileFeignConfig();
+
+    private static ObjectProvider<Jackson2ObjectMapperBuilder> builder(Jackson2ObjectMapperBuilder builder) {
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        if (builder != null) {
+            factory.registerSingleton("builder", builder);
+        }
+        return factory.getBeanProvider(Jackson2ObjectMapperBuilder.class);
+    }
+
+    private static Type echoType() throws NoSuchMethodException {
+        return ConfigApi.class.getMethod("echo", String.class).getGenericReturnType();
+    }
+
+    private static Response response(String contentType, byte[] body) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(contentType));
+        Request request = Request.create(Request.HttpMethod.GET, "http://service-base-provider/config/echo/a",
+                Collections.emptyMap(), null, StandardCharsets.UTF_8);
+        return Response.builder().status(200).reason("OK").headers(headers).request(request).body(body).build();
+    }
+
+    @Test
+    public void encodesRequestBodyAsJson() throws Exception {
+        Encoder encoder = config.feignEncoder(builder(null));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "用户");
+        RequestTemplate template = new RequestTemplate();
+        encoder.encode(body, Map.class, template);
+        String contentType = template.headers().get(HttpHeaders.CONTENT_TYPE).iterator().next();
+        assertTrue(contentType, contentType.startsWith("application/json"));
+        assertEquals("{\"name\":\"用户\"}", new String(template.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void decodesSmileAndJsonResponses() throws Exception {
+        Decoder decoder = config.feignDecoder(builder(null));
+        R<String> expected = R.success("Hello 你好");
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(expected);
+        byte[] json = new ObjectMapper().writeValueAsBytes(expected);
+        assertFalse(new String(smile, StandardCharsets.ISO_8859_1).startsWith("{"));
+        for (Response response : new Response[]{response(SMILE, smile), response("application/json;charset=UTF-8", json)}) {
+            R<?> r = (R<?>) decoder.decode(response, echoType());
+            assertEquals("Hello 你好", r.getData());
+            assertEquals(R.SUCCESS_CODE, r.getCode());
+            assertEquals(expected.getTimestamp(), r.getTimestamp());
+        }
+    }
+
+    @Test
+    public void keepsApplicationBuilderUnchanged() throws Exception {
+        Jackson2ObjectMapperBuilder shared = Jackson2ObjectMapperBuilder.json().serializationInclusion(JsonInclude.Include.NON_NULL);
+        config.feignDecoder(builder(shared));
+        // 解码器的Smile实例不修改共享的 builder，之后构建的仍是JSON
+        ObjectMapper mapper = shared.build();
+        assertFalse(mapper.getFactory() instanceof SmileFactory);
+        assertFalse(mapper.writeValueAsString(R.success("a")).contains("\"path\""));
+        ObjectMapper smile = SmileFeignConfig.smileMapper(shared);
+        assertTrue(smile.getFactory() instanceof SmileFactory);
+        assertEquals(JsonInclude.Include.NON_NULL, smile.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion());
+    }
+
+    @Test
+    public void prefersSmileUnlessAcceptDeclared() {
+        RequestTemplate template = new RequestTemplate();
+        config.smileAcceptInterceptor().apply(template);
+        assertEquals(SmileFeignConfig.ACCEPT, template.headers().get(HttpHeaders.ACCEPT).iterator().next());
+
+        RequestTemplate declared = new RequestTemplate().header(HttpHeaders.ACCEPT, "text/plain");
+        config.smileAcceptInterceptor().apply(declared);
+        assertEquals(Collections.singletonList("text/plain"), declared.headers().get(HttpHeaders.ACCEPT));
+    }
+}
@@ -0,0 +1,75 @@
+package com.pvxy.servicebaseprovider.config;
+
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 在响应头 X-Config-Version 中返回当前配置版本，调用方据此清空本地缓存
+ * 版本取Nacos等远程配置内容的摘要，同一份配置在各实例上版本相同；
+ * 在 @RefreshScope 的bean重建后才重新计算，调用方看到新版本时重新加载得到的一定是新配置
+ */
+@Component
+public class ConfigVersionFilter extends OncePerRequestFilter implements ApplicationListener<RefreshScopeRefreshedEvent> {
+
+    /**
+     * 与 service-base-consume 的 NearCacheRegistry.VERSION_HEADER 一致
+     */
+    public static final String VERSION_HEADER = "X-Config-Version";
+
+    /**
+     * 远程配置在 Environment 中的属性源名称
+     */
+    private static final String REMOTE_PROPERTY_SOURCE = "bootstrapProperties";
+
+    private final ConfigurableEnvironment environment;
+
+    private volatile String version;
+
+    public ConfigVersionFilter(ConfigurableEnvironment environment) {
+        this.environment = environment;
+        this.version = computeVersion();
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshScopeRefreshedEvent event) {
+        this.version = computeVersion();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.setHeader(VERSION_HEADER, version);
+        chain.doFilter(request, response);
+    }
+
+    private String computeVersion() {
+        PropertySource<?> source = environment.getPropertySources().get(REMOTE_PROPERTY_SOURCE);
+        if (!(source instanceof EnumerablePropertySource)) {
+            return "0";
+        }
+        Map<String, String> properties = new TreeMap<>();
+        for (String name : ((EnumerablePropertySource<?>) source).getPropertyNames()) {
+            properties.put(name, String.valueOf(source.getProperty(name)));
+        }
+        return DigestUtils.md5DigestAsHex(properties.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
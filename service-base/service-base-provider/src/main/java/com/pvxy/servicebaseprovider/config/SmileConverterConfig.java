@@ -0,0 +1,33 @@
+package com.pvxy.servicebaseprovider.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 服务间调用的Smile编码
+ * 请求头 Accept 优先 application/x-jackson-smile 时按Smile读写，其余（浏览器、*&#47;*）仍为JSON；
+ * 默认的Smile转换器不读取 spring.jackson 配置，这里换成与JSON相同配置的实例，并放在JSON之后；
+ * 只用于响应，Feign客户端的请求体仍为JSON
+ */
+@Configuration
+public class SmileConverterConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder builder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        builder.configure(mapper);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(mapper));
+    }
+}
@@ -1,18 +1,32 @@
 package com.pvxy.servicebaseprovider.controller;
 
+import com.pvxy.servicebaseprovider.config.ConfigVersionFilter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import vo.R;
 
 @RestController
 @RequestMapping("/config")
 @RefreshScope
 public class ConfigController {
 
+    @Autowired
+    private ConfigVersionFilter configVersionFilter;
+
     @GetMapping("/echo/{string}")
-    public String echo(@PathVariable("string") String string) {
-        return "Hello Nacos Discovery " + string;
+    public R<String> echo(@PathVariable("string") String string) {
+        return R.success("Hello Nacos Discovery " + string);
+    }
+
+    /**
+     * 当前配置版本，供调用方定时探测；响应头同样带有版本
+     */
+    @GetMapping("/version")
+    public R<String> version() {
+        return R.success(configVersionFilter.getVersion());
     }
 }
@@ -0,0 +1,46 @@
+package com.pvxy.servicebaseprovider.config;
+
+import org.junit.Test;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ConfigVersionFilterTest {
+
+    private static StandardEnvironment environment(Map<String, Object> remote) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("bootstrapProperties", remote));
+        return environment;
+    }
+
+    @Test
+    public void sameConfigGivesSameVersion() {
+        Map<String, Object> a = new HashMap<>();
+        a.put("x", "1");
+        a.put("y", "2");
+        Map<String, Object> b = new HashMap<>();
+        b.put("y", "2");
+        b.put("x", "1");
+        assertEquals(new ConfigVersionFilter(environment(a)).getVersion(), new ConfigVersionFilter(environment(b)).getVersion());
+        assertEquals("0", new ConfigVersionFilter(new StandardEnvironment()).getVersion());
+    }
+
+    @Test
+    public void recomputesAfterRefreshScopeRebuilt() {
+        Map<String, Object> remote = new HashMap<>();
+        remote.put("x", "1");
+        ConfigVersionFilter filter = new ConfigVersionFilter(environment(remote));
+        String before = filter.getVersion();
+        remote.put("x", "2");
+        // 环境已变化但 @RefreshScope 还未重建，版本不变
+        assertEquals(before, filter.getVersion());
+        filter.onApplicationEvent(new RefreshScopeRefreshedEvent());
+        assertNotEquals(before, filter.getVersion());
+    }
+}
@@ -0,0 +1,56 @@
+package com.pvxy.servicebaseprovider.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import vo.R;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class SmileConverterConfigTest {
+
+    @Test
+    public void replacesSmileConverterWithConfiguredOne() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().serializationInclusion(JsonInclude.Include.NON_NULL);
+        SmileConverterConfig config = new SmileConverterConfig();
+        Field field = SmileConverterConfig.class.getDeclaredField("builder");
+        field.setAccessible(true);
+        field.set(config, builder);
+
+        MappingJackson2SmileHttpMessageConverter original = new MappingJackson2SmileHttpMessageConverter();
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(original);
+        converters.add(new MappingJackson2HttpMessageConverter());
+        config.extendMessageConverters(converters);
+
+        // 只保留一个Smile转换器且排在JSON之后
+        assertEquals(2, converters.size());
+        assertTrue(converters.get(0) instanceof MappingJackson2HttpMessageConverter);
+        MappingJackson2SmileHttpMessageConverter smile = (MappingJackson2SmileHttpMessageConverter) converters.get(1);
+        assertNotSame(original, smile);
+        assertTrue(smile.canWrite(R.class, MediaType.valueOf("application/x-jackson-smile")));
+
+        ObjectMapper mapper = smile.getObjectMapper();
+        assertTrue(mapper.getFactory() instanceof SmileFactory);
+        JsonNode tree = new ObjectMapper(new SmileFactory()).readTree(mapper.writeValueAsBytes(R.success("a")));
+        assertEquals("a", tree.get("data").asText());
+        // 沿用 builder 的 NON_NULL
+        assertFalse(tree.has("path"));
+        // builder 本身未被改成Smile
+        assertFalse(builder.build().getFactory() instanceof SmileFactory);
+    }
+}
@@ -15,7 +15,7 @@ public class BaseController {
     private ConfigApi configApi;
 
     @GetMapping("/nihao")
-    public R nihao() {
-        return R.success(configApi.echo("nnnn"));
+    public R<String> nihao() {
+        return configApi.echo("nnnn");
     }
 }
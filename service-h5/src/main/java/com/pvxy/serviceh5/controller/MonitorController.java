@@ -0,0 +1,31 @@
+package com.pvxy.serviceh5.controller;
+
+import com.pvxy.servicebaseconsume.cache.NearCacheRegistry;
+import com.pvxy.servicebaseconsume.config.FeignPoolMetrics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import vo.R;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/monitor")
+public class MonitorController {
+
+    /**
+     * Feign连接池状态：使用率、等待连接数、连接复用率
+     */
+    @GetMapping("/feign-pools")
+    public R<Map<String, Map<String, Object>>> feignPools() {
+        return R.success(FeignPoolMetrics.snapshot());
+    }
+
+    /**
+     * Feign本地缓存状态：服务端配置版本、各方法的命中和加载次数
+     */
+    @GetMapping("/near-caches")
+    public R<Map<String, Map<String, Object>>> nearCaches() {
+        return R.success(NearCacheRegistry.snapshot());
+    }
+}